@@ -1,21 +1,34 @@
 package com.ouharri.cirestechnologies.controllers;
 
 import com.ouharri.cirestechnologies.exceptions.ResourceNotFoundException;
+import com.ouharri.cirestechnologies.model.dto.requests.GenerationJobRequest;
+import com.ouharri.cirestechnologies.model.dto.responses.BatchImportResponse;
+import com.ouharri.cirestechnologies.model.dto.responses.GenerationJobResponse;
+import com.ouharri.cirestechnologies.model.dto.responses.ImportJobResponse;
 import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDTO;
 import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
 import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import com.ouharri.cirestechnologies.model.enums.GenerationCompression;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.services.spec.BatchImportService;
+import com.ouharri.cirestechnologies.services.spec.GenerationJobService;
+import com.ouharri.cirestechnologies.services.spec.ImportJobService;
 import com.ouharri.cirestechnologies.services.spec.UserService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
-import java.util.Objects;
+import java.net.URI;
+import java.security.Principal;
+import java.util.UUID;
 
 /**
  * Controller class for handling user-related endpoints.
@@ -34,40 +47,129 @@ import java.util.Objects;
 public class UserController {
 
     private final UserService service;
+    private final GenerationJobService generationJobService;
+    private final ImportJobService importJobService;
+    private final BatchImportService batchImportService;
 
     /**
      * Generates users based on the given count.
+     * Larger files are produced by {@link #submitGenerationJob generation jobs}.
+     * <p>
+     * Users are streamed to the client while they are generated, either as a JSON array
+     * or as newline-delimited JSON, so the response starts before the last user exists.
+     * </p>
      *
-     * @param count The number of users to generate.
-     * @return ResponseEntity containing the generated users.
-     * @throws ResourceNotFoundException If the count value is invalid.
+     * <p>
+     * The same count and seed always produce the same file, whatever the database holds, and the
+     * seed is echoed in the {@code X-Generation-Seed} header. Without a seed, users are served from
+     * the pre-generated pool, avoiding the usernames and e-mails already in the database, and the
+     * file cannot be reproduced.
+     * </p>
+     *
+     * <p>
+     * The file is compressed on the fly, chunk by chunk, either when the format ends with
+     * {@code .gz} or {@code .zst}, in which case a compressed file is downloaded, or when the
+     * client accepts {@code zstd} or {@code gzip}, in which case the response carries a
+     * {@code Content-Encoding}. The optional level defaults to 6 for gzip and 3 for zstd.
+     * </p>
+     *
+     * @param count          The number of users to generate.
+     * @param format         The output format, {@code json} (default) or {@code ndjson},
+     *                       optionally followed by {@code .gz} or {@code .zst}.
+     * @param seed           The optional seed of the generation.
+     * @param level          The optional compression level.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request.
+     * @return ResponseEntity streaming the generated users.
+     * @throws ResourceNotFoundException If the count, format or level value is invalid.
      */
-    @GetMapping(value = "generate", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<UserGeneratedResponses>> generateUser(@RequestParam("count") int count) {
+    @GetMapping(value = "generate")
+    public ResponseEntity<StreamingResponseBody> generateUser(
+            @RequestParam("count") int count,
+            @RequestParam(value = "format", defaultValue = "json") String format,
+            @RequestParam(value = "seed", required = false) Long seed,
+            @RequestParam(value = "level", required = false) Integer level,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
 
         if (count <= 0 || count > 200000)
             throw new ResourceNotFoundException("Invalid count value. Please provide a positive integer value less than or equal to 200000.");
 
-        List<UserGeneratedResponses> users = service.generateUsers(count);
-
-        if (users.isEmpty())
-            return ResponseEntity.noContent().build();
+        GenerationCompression fileCompression = GenerationCompression.fromFormat(format);
+        GenerationFormat generationFormat = GenerationFormat.fromParameter(fileCompression.stripSuffix(format));
+        GenerationCompression compression = fileCompression != GenerationCompression.NONE
+                ? fileCompression
+                : GenerationCompression.negotiate(acceptEncoding);
+        int compressionLevel = compression.level(level);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=generated_" + count + "_users.json");
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=generated_" + count + "_users." + generationFormat.getExtension() + fileCompression.getSuffix());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (fileCompression == GenerationCompression.NONE && compression != GenerationCompression.NONE)
+            headers.add(HttpHeaders.CONTENT_ENCODING, compression.getEncoding());
         headers.add("Cache-Control", "no-cache, no-store, must-revalidate");
         headers.add("Pragma", "no-cache");
         headers.add("Expires", "0");
 
+        StreamingResponseBody body;
+        if (seed != null) {
+            headers.add("X-Generation-Seed", Long.toString(seed));
+            body = out -> service.streamUsers(count, seed, generationFormat, compression.wrap(out, compressionLevel));
+        } else
+            body = out -> service.streamPooledUsers(count, generationFormat, compression.wrap(out, compressionLevel));
+
         return ResponseEntity.ok()
                 .headers(headers)
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(users);
+                .contentType(MediaType.parseMediaType(fileCompression == GenerationCompression.NONE ? generationFormat.getMediaType() : fileCompression.getMediaType()))
+                .body(body);
+
+    }
+
+    /**
+     * Submits an asynchronous generation job for up to
+     * {@code application.users.generation.jobs.max-count} users.
+     *
+     * @param request The count, format, seed and compression level of the file to generate.
+     * @return ResponseEntity containing the state of the submitted job.
+     */
+    @PostMapping("generate/jobs")
+    public ResponseEntity<GenerationJobResponse> submitGenerationJob(@Valid @RequestBody GenerationJobRequest request) {
+        GenerationJobResponse job = generationJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/users/generate/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    /**
+     * Retrieves the state and progress of a generation job.
+     *
+     * @param id The identifier of the job.
+     * @return ResponseEntity containing the state of the job.
+     */
+    @GetMapping("generate/jobs/{id}")
+    public ResponseEntity<GenerationJobResponse> getGenerationJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(generationJobService.getJob(id));
+    }
 
+    /**
+     * Downloads the file of a completed generation job.
+     * Byte ranges are supported, so an interrupted download can be resumed.
+     *
+     * @param id The identifier of the job.
+     * @return ResponseEntity containing the generated file.
+     */
+    @GetMapping("generate/jobs/{id}/file")
+    public ResponseEntity<Resource> downloadGenerationJob(@PathVariable UUID id) {
+        GenerationJobResponse job = generationJobService.getJob(id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFileName())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(generationJobService.getFile(id));
     }
 
     /**
      * Uploads a batch of users from the provided file.
+     * JSON, NDJSON, CSV and binary files, as produced by {@link #generateUser}, are accepted;
+     * the format is told by the content type or the file extension.
      *
      * @param file The multipart file containing user data.
      * @return ResponseEntity containing the upload summary.
@@ -75,8 +177,7 @@ public class UserController {
     @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<UploadSummaryResponseDTO> uploadUserBatch(@RequestParam("file") MultipartFile file) {
         try {
-            if (!Objects.equals(file.getContentType(), "application/json"))
-                throw new ResourceNotFoundException("Invalid file format. Please provide a valid JSON file.");
+            GenerationFormat.fromUpload(file.getContentType(), file.getOriginalFilename());
 
             if (file.isEmpty())
                 throw new ResourceNotFoundException("No user data provided to upload. The file is empty.");
@@ -90,6 +191,90 @@ public class UserController {
         }
     }
 
+    /**
+     * Uploads a batch of users from the provided file, streaming back the outcome of each record
+     * as newline-delimited JSON while the import runs: its position in the file, its e-mail and
+     * username, its {@link com.ouharri.cirestechnologies.model.enums.ImportStatus status} and,
+     * if it was not imported, the reason. Outcomes come in completion order, not file order.
+     * A file already imported is not imported again: the replayed summary of its first import is
+     * streamed instead, as a single line.
+     *
+     * @param file The multipart file containing user data.
+     * @return ResponseEntity streaming the outcome of each record.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> uploadUserBatchReport(@RequestParam("file") MultipartFile file) {
+        try {
+            GenerationFormat.fromUpload(file.getContentType(), file.getOriginalFilename());
+
+            if (file.isEmpty())
+                throw new ResourceNotFoundException("No user data provided to upload. The file is empty.");
+        } catch (RuntimeException e) {
+            log.error("Error processing file", e);
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> service.uploadBatch(file, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Submits an asynchronous import job for the provided file, which is spooled to disk before
+     * the response is sent. The progress of the job can be polled, and is pushed to the
+     * authenticated user on the {@code /user/import-jobs} STOMP destination.
+     *
+     * @param file      The multipart file containing user data.
+     * @param principal The authenticated user, if any.
+     * @return ResponseEntity containing the state of the submitted job.
+     */
+    @PostMapping(value = "/batch/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobResponse> submitImportJob(@RequestParam("file") MultipartFile file, Principal principal) {
+        ImportJobResponse job = importJobService.submit(file, principal);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/users/batch/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    /**
+     * Retrieves the state and progress of an import job.
+     *
+     * @param id The identifier of the job.
+     * @return ResponseEntity containing the state of the job.
+     */
+    @GetMapping("/batch/jobs/{id}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
+
+    /**
+     * Launches the Spring Batch import of a newline-delimited JSON file already dropped in the
+     * import directory of the server, for files too large to upload. Launching the import of a
+     * file whose last import failed resumes it where it stopped.
+     *
+     * @param fileName The name of the file in the import directory.
+     * @return ResponseEntity containing the state of the launched execution.
+     */
+    @PostMapping("/batch/imports")
+    public ResponseEntity<BatchImportResponse> launchBatchImport(@RequestParam("fileName") String fileName) {
+        BatchImportResponse execution = batchImportService.launch(fileName);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/users/batch/imports/" + execution.getId()))
+                .body(execution);
+    }
+
+    /**
+     * Retrieves the state and progress of an execution of the Spring Batch import.
+     *
+     * @param id The identifier of the execution.
+     * @return ResponseEntity containing the state of the execution.
+     */
+    @GetMapping("/batch/imports/{id}")
+    public ResponseEntity<BatchImportResponse> getBatchImport(@PathVariable long id) {
+        return ResponseEntity.ok(batchImportService.getExecution(id));
+    }
+
     /**
      * Retrieves the currently authenticated user.
      *
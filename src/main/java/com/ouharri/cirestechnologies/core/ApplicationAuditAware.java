@@ -1,6 +1,7 @@
 package com.ouharri.cirestechnologies.core;
 
 import com.ouharri.cirestechnologies.model.entities.User;
+import com.ouharri.cirestechnologies.security.TokenUserDetails;
 import io.micrometer.common.lang.NonNullApi;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -37,6 +38,9 @@ public class ApplicationAuditAware implements AuditorAware<UUID> {
         )
             return Optional.empty();
 
+        if (authentication.getPrincipal() instanceof TokenUserDetails tokenUser)
+            return Optional.ofNullable(tokenUser.getId());
+
         User userPrincipal = (User) authentication.getPrincipal();
         return Optional.of(userPrincipal.getId());
     }
@@ -1,8 +1,5 @@
 package com.ouharri.cirestechnologies.core;
 
-import com.github.javafaker.Faker;
-import com.github.javafaker.service.FakeValuesService;
-import com.github.javafaker.service.RandomService;
 import com.ouharri.cirestechnologies.repositories.UserRepository;
 import com.ouharri.cirestechnologies.security.GoogleOpaqueTokenIntrospector;
 import lombok.RequiredArgsConstructor;
@@ -22,8 +19,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
 import org.springframework.web.reactive.function.client.WebClient;
 
-import java.util.Locale;
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -107,25 +102,6 @@ public class ApplicationConfig {
         return new ModelMapper();
     }
 
-    @Bean
-    public Faker faker() {
-        return new Faker();
-    }
-
-    @Bean
-    public Random random() {
-        return new Random();
-    }
-
-    @Bean
-    @SuppressWarnings("deprecation")
-    public FakeValuesService fakeValuesService() {
-        return new FakeValuesService(
-                new Locale("en-US"),
-                new RandomService()
-        );
-    }
-
     /**
      * Creates and configures an OpaqueTokenIntrospector bean, specifically a custom
      * implementation for Google's opaque token introspection.
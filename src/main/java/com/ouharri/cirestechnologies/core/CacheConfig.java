@@ -9,6 +9,7 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -57,6 +58,19 @@ public class CacheConfig {
                 .build();
     }
 
+    /**
+     * Bean definition for the RedisMessageListenerContainer, which dispatches the messages of the
+     * Redis channels the application subscribes to, such as the token revocations.
+     *
+     * @return RedisMessageListenerContainer bean
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        return container;
+    }
+
     /**
      * Helper method to create a default RedisCacheConfiguration with a specified time-to-live (TTL).
      *
@@ -0,0 +1,166 @@
+package com.ouharri.cirestechnologies.core;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration class declaring the executors of the application.
+ * <p>
+ * Work is split by what it waits on:
+ * </p>
+ * <ul>
+ *     <li>{@code ioTaskExecutor}, also registered as {@code applicationTaskExecutor} so that it
+ *     runs Spring MVC asynchronous requests such as streamed downloads, for work blocked on
+ *     SMTP, JDBC, disk or the network. It starts a virtual thread per task, unless
+ *     {@code application.executors.io.virtual-threads} is {@code false}, in which case it is a
+ *     bounded platform pool of {@code application.executors.io.pool-size} threads;</li>
+ *     <li>{@code generationTaskExecutor}, a bounded platform pool for CPU-bound user generation,
+ *     sized by {@code application.users.generation.parallelism}, the number of available
+ *     processors by default;</li>
+ *     <li>{@code hashingTaskExecutor}, a bounded platform pool for the CPU-bound password hashing
+ *     of user imports, sized by {@code application.users.import.parallelism}, the number of
+ *     available processors by default.</li>
+ * </ul>
+ * <p>
+ * On shutdown the executors stop accepting tasks and wait up to
+ * {@code application.executors.shutdown-timeout} for running ones to complete. The active
+ * count and queue depth of the platform pools are published as the {@code executor.*} meters of
+ * Micrometer, tagged with the executor name; virtual threads are not queued, so only their active
+ * count is published.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * The name of the meters of each platform pool, by bean name.
+     */
+    private static final Map<String, String> METRIC_NAMES = Map.of(
+            "ioTaskExecutor", "io",
+            "generationTaskExecutor", "generation",
+            "hashingTaskExecutor", "hashing"
+    );
+
+    @Value("${application.executors.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    /**
+     * Creates a bounded platform pool with an unbounded queue, shut down gracefully.
+     *
+     * @param threadNamePrefix The prefix of the names of its threads.
+     * @param size             The number of threads.
+     * @param shutdownTimeout  How long to wait for running tasks on shutdown.
+     * @return The pool, initialized by Spring when declared as a bean, otherwise by the caller.
+     */
+    public static ThreadPoolTaskExecutor boundedPool(String threadNamePrefix, int size, Duration shutdownTimeout) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setDaemon(true);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(shutdownTimeout.toMillis());
+        return executor;
+    }
+
+    /**
+     * Creates the executor for I/O-bound work.
+     *
+     * @param virtualThreads Whether to start a virtual thread per task.
+     * @param poolSize       The number of platform threads when virtual threads are disabled.
+     * @param registry       The registry to publish the executor metrics to.
+     * @return The I/O executor.
+     */
+    @Bean(name = {"ioTaskExecutor", "applicationTaskExecutor"})
+    public AsyncTaskExecutor ioTaskExecutor(
+            @Value("${application.executors.io.virtual-threads:true}") boolean virtualThreads,
+            @Value("${application.executors.io.pool-size:32}") int poolSize,
+            MeterRegistry registry
+    ) {
+        if (!virtualThreads)
+            return boundedPool("io-", poolSize, shutdownTimeout);
+
+        AtomicInteger active = new AtomicInteger();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("io-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(shutdownTimeout.toMillis());
+        executor.setTaskDecorator(task -> () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+
+        Gauge.builder("executor.active", active, AtomicInteger::get)
+                .description("The approximate number of threads that are actively executing tasks")
+                .tags(Tags.of("name", "io"))
+                .register(registry);
+        return executor;
+    }
+
+    /**
+     * Creates the executor for CPU-bound user generation.
+     *
+     * @param parallelism The number of threads, {@code 0} for the number of available processors.
+     * @return The generation executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor generationTaskExecutor(
+            @Value("${application.users.generation.parallelism:0}") int parallelism
+    ) {
+        return boundedPool("user-generation-", sizeOf(parallelism), shutdownTimeout);
+    }
+
+    /**
+     * Creates the executor for the password hashing of user imports.
+     *
+     * @param parallelism The number of threads, {@code 0} for the number of available processors.
+     * @return The hashing executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor hashingTaskExecutor(
+            @Value("${application.users.import.parallelism:0}") int parallelism
+    ) {
+        return boundedPool("password-hashing-", sizeOf(parallelism), shutdownTimeout);
+    }
+
+    /**
+     * Publishes the metrics of the platform pools once every singleton is initialized, so that
+     * they are bound to the {@link java.util.concurrent.ThreadPoolExecutor} Spring created for
+     * each pool.
+     *
+     * @param beanFactory The factory holding the platform pools.
+     * @param registry    The registry to publish the executor metrics to.
+     * @return The callback binding the metrics.
+     */
+    @Bean
+    public SmartInitializingSingleton executorMetrics(ListableBeanFactory beanFactory, MeterRegistry registry) {
+        return () -> beanFactory.getBeansOfType(ThreadPoolTaskExecutor.class).forEach((bean, executor) -> {
+            String name = METRIC_NAMES.get(bean);
+            if (name != null)
+                new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(registry);
+        });
+    }
+
+    private static int sizeOf(int parallelism) {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
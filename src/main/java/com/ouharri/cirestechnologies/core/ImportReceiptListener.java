@@ -0,0 +1,45 @@
+package com.ouharri.cirestechnologies.core;
+
+import com.ouharri.cirestechnologies.importer.ImportReceipts;
+import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+
+import java.util.List;
+
+/**
+ * {@link JobExecutionListener} of the Spring Batch user import, completing the receipt claimed
+ * for the file with the summary of the import once it completes, so that the same content is not
+ * imported again by any entry point, or releasing it otherwise, for the import to be restarted.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@RequiredArgsConstructor
+public class ImportReceiptListener implements JobExecutionListener {
+
+    private final ImportReceipts importReceipts;
+
+    @Override
+    public void afterJob(@NotNull JobExecution execution) {
+        String digest = execution.getJobParameters().getString(UserImportBatchConfig.DIGEST_PARAMETER);
+        if (digest == null)
+            return;
+        if (execution.getStatus() != BatchStatus.COMPLETED) {
+            importReceipts.release(digest);
+            return;
+        }
+
+        List<StepExecution> partitions = execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().startsWith(UserImportBatchConfig.PARTITION_STEP_NAME + ":"))
+                .toList();
+        importReceipts.complete(digest, UploadSummaryResponseDTO.builder()
+                .totalRecords((int) partitions.stream().mapToLong(step -> step.getReadCount() + step.getReadSkipCount()).sum())
+                .successfullyImported((int) partitions.stream().mapToLong(StepExecution::getWriteCount).sum())
+                .failedToImport((int) partitions.stream().mapToLong(StepExecution::getSkipCount).sum())
+                .build());
+    }
+}
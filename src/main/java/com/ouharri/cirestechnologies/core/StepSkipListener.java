@@ -1,14 +1,13 @@
 package com.ouharri.cirestechnologies.core;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
 import com.ouharri.cirestechnologies.model.entities.User;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.batch.core.SkipListener;
 
 @Slf4j
-public class StepSkipListener implements SkipListener<User, Number> {
+public class StepSkipListener implements SkipListener<UserResponses, User> {
 
     @Override
     public void onSkipInRead(Throwable throwable) {
@@ -16,14 +15,12 @@ public class StepSkipListener implements SkipListener<User, Number> {
     }
 
     @Override
-    public void onSkipInWrite(@NotNull Number item, Throwable throwable) {
-        log.info("A failure on write {} , {}", throwable.getMessage(), item);
+    public void onSkipInWrite(@NotNull User user, Throwable throwable) {
+        log.info("A failure on write {} , {}", throwable.getMessage(), user.getEmail());
     }
 
     @Override
-    @SneakyThrows
-    public void onSkipInProcess(@NotNull User user, Throwable throwable) {
-        log.info("Item {}  was skipped due to the exception  {}", new ObjectMapper().writeValueAsString(user),
-                throwable.getMessage());
+    public void onSkipInProcess(@NotNull UserResponses user, Throwable throwable) {
+        log.info("Item {} was skipped due to the exception {}", user.getEmail(), throwable.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package com.ouharri.cirestechnologies.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.importer.ImportReceipts;
+import com.ouharri.cirestechnologies.importer.NdjsonUserItemReader;
+import com.ouharri.cirestechnologies.importer.UserFilePartitioner;
+import com.ouharri.cirestechnologies.importer.UserItemProcessor;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import com.ouharri.cirestechnologies.model.entities.User;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration class of the Spring Batch user import job, meant for the nightly loads of
+ * newline-delimited JSON files of millions of users.
+ * <p>
+ * The {@code userImportJob} takes the path of the file as its {@code file} parameter. Its
+ * {@code userImportStep} splits the file into {@code application.users.import.batch.partitions}
+ * byte ranges of whole lines, the number of available processors by default, and runs a
+ * {@code userImportPartition} step per range on the {@code ioTaskExecutor}. Each partition
+ * streams its range through the {@link NdjsonUserItemReader}, validates and hashes users with the
+ * {@link UserItemProcessor}, and writes them with the {@link userItemWriter}, committing every
+ * {@code application.users.import.commit-interval} users.
+ * </p>
+ * <p>
+ * Users failing validation or clashing with existing ones are skipped and logged by the
+ * {@link StepSkipListener}, up to {@code application.users.import.batch.skip-limit} per partition;
+ * chunks failing transiently are retried up to {@code application.users.import.retry-limit} times.
+ * Partitions and their read offsets are saved in the {@code BATCH_} tables, so launching a failed
+ * job again with the same parameters resumes each unfinished partition from its last commit.
+ * The summary of a completed job is recorded by the {@link ImportReceiptListener}.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Configuration
+public class UserImportBatchConfig {
+
+    /**
+     * Name of the user import job.
+     */
+    public static final String JOB_NAME = "userImportJob";
+
+    /**
+     * Name of the job parameter holding the path of the file to import.
+     */
+    public static final String FILE_PARAMETER = "file";
+
+    /**
+     * Name of the non-identifying job parameter holding the digest of the file to import.
+     */
+    public static final String DIGEST_PARAMETER = "digest";
+
+    /**
+     * Name of the steps importing each partition of the file.
+     */
+    public static final String PARTITION_STEP_NAME = "userImportPartition";
+
+    @Bean
+    public Job userImportJob(JobRepository jobRepository, Step userImportStep, ImportReceipts importReceipts) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(userImportStep)
+                .listener(new ImportReceiptListener(importReceipts))
+                .build();
+    }
+
+    @Bean
+    public Step userImportStep(
+            JobRepository jobRepository,
+            Step userImportPartitionStep,
+            UserFilePartitioner userFilePartitioner,
+            @Qualifier("ioTaskExecutor") TaskExecutor executor,
+            @Value("${application.users.import.batch.partitions:0}") int partitions
+    ) {
+        return new StepBuilder("userImportStep", jobRepository)
+                .partitioner(PARTITION_STEP_NAME, userFilePartitioner)
+                .step(userImportPartitionStep)
+                .gridSize(partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors())
+                .taskExecutor(executor)
+                .build();
+    }
+
+    @Bean
+    public Step userImportPartitionStep(
+            JobRepository jobRepository,
+            PlatformTransactionManager transactionManager,
+            NdjsonUserItemReader userFileReader,
+            UserItemProcessor processor,
+            userItemWriter writer,
+            @Value("${application.users.import.commit-interval:100}") int commitInterval,
+            @Value("${application.users.import.retry-limit:3}") int retryLimit,
+            @Value("${application.users.import.batch.skip-limit:10000}") int skipLimit
+    ) {
+        return new StepBuilder(PARTITION_STEP_NAME, jobRepository)
+                .<UserResponses, User>chunk(Math.max(1, commitInterval), transactionManager)
+                .reader(userFileReader)
+                .processor(processor)
+                .writer(writer)
+                .faultTolerant()
+                .skip(ConstraintViolationException.class)
+                .skip(DataIntegrityViolationException.class)
+                .skipLimit(skipLimit)
+                .retry(TransientDataAccessException.class)
+                .retryLimit(Math.max(0, retryLimit) + 1)
+                .listener(new StepSkipListener())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public UserFilePartitioner userFilePartitioner(@Value("#{jobParameters['" + FILE_PARAMETER + "']}") String file) {
+        return new UserFilePartitioner(Path.of(file));
+    }
+
+    @Bean
+    @StepScope
+    public NdjsonUserItemReader userFileReader(
+            ObjectMapper objectMapper,
+            @Value("#{jobParameters['" + FILE_PARAMETER + "']}") String file,
+            @Value("#{stepExecutionContext['" + UserFilePartitioner.START + "']}") Long start,
+            @Value("#{stepExecutionContext['" + UserFilePartitioner.END + "']}") Long end
+    ) {
+        return new NdjsonUserItemReader(objectMapper, Path.of(file), start, end);
+    }
+}
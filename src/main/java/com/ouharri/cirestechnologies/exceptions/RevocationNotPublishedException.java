@@ -0,0 +1,50 @@
+package com.ouharri.cirestechnologies.exceptions;
+
+import com.ouharri.cirestechnologies.model.dto.error.ApiErrorFactory;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+/**
+ * Custom exception class for handling cases where the revocation of tokens was recorded but could
+ * not be published to the other nodes, which keep accepting the tokens until they expire.
+ * This class extends {@link ResourceException}.
+ * <p>
+ * It uses {@link ResponseStatus} to automatically send an HTTP 503 Service Unavailable status
+ * when this exception is thrown, so that the client retries.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+public class RevocationNotPublishedException extends ResourceException {
+
+    private static final String DEFAULT_MESSAGE = "Tokens revoked on this node only, retry later.";
+
+    /**
+     * Constructs a new RevocationNotPublishedException with the default message.
+     */
+    public RevocationNotPublishedException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    /**
+     * Exception handler for RevocationNotPublishedException exceptions.
+     *
+     * @param ex The RevocationNotPublishedException exception.
+     * @return ResponseEntity containing the ApiErrorFactory and HTTP status.
+     */
+    @ExceptionHandler(RevocationNotPublishedException.class)
+    public ResponseEntity<ApiErrorFactory> handleRevocationNotPublishedException(RevocationNotPublishedException ex) {
+        ApiErrorFactory apiError = new ApiErrorFactory(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                List.of(ex.getMessage())
+        );
+        return new ResponseEntity<>(apiError, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
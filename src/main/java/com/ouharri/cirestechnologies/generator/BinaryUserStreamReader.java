@@ -0,0 +1,131 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link UserStreamReader} consuming the binary rows written by {@link BinaryUserStreamWriter}.
+ * <p>
+ * Rows are decoded with the schema found in the file header; fields unknown to this version are
+ * skipped.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+final class BinaryUserStreamReader implements UserStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final UserField.Kind[] KINDS = UserField.Kind.values();
+
+    private final DataInputStream in;
+    private final UserField[] fields;
+    private final UserField.Kind[] kinds;
+    private final List<List<String>> dictionaries;
+
+    BinaryUserStreamReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+
+        byte[] magic = new byte[BinaryUserStreamWriter.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, BinaryUserStreamWriter.MAGIC))
+            throw new StreamCorruptedException("Not a binary users file");
+        int version = this.in.readUnsignedByte();
+        if (version != BinaryUserStreamWriter.VERSION)
+            throw new StreamCorruptedException("Unsupported binary users file version " + version);
+
+        int count = (int) readVarLong();
+        this.fields = new UserField[count];
+        this.kinds = new UserField.Kind[count];
+        this.dictionaries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readString();
+            int kind = this.in.readUnsignedByte();
+            if (kind >= KINDS.length)
+                throw new StreamCorruptedException("Unknown field kind " + kind);
+            kinds[i] = KINDS[kind];
+            for (UserField field : UserField.FIELDS)
+                if (field.header.equals(name) && field.kind == kinds[i])
+                    fields[i] = field;
+            dictionaries.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public UserResponses read() throws IOException {
+        int tag;
+        while ((tag = in.readUnsignedByte()) == BinaryUserStreamWriter.TAG_DICTIONARY) {
+            int field = in.readUnsignedByte();
+            if (field >= dictionaries.size())
+                throw new StreamCorruptedException("Unknown field " + field);
+            dictionaries.get(field).add(readString());
+        }
+
+        if (tag == BinaryUserStreamWriter.TAG_END)
+            return null;
+        if (tag != BinaryUserStreamWriter.TAG_ROW)
+            throw new StreamCorruptedException("Unknown record tag " + tag);
+
+        UserResponses user = new UserResponses();
+        for (int i = 0; i < fields.length; i++) {
+            switch (kinds[i]) {
+                case STRING -> set(user, fields[i], readString());
+                case DICTIONARY -> {
+                    int id = (int) readVarLong();
+                    set(user, fields[i], id == 0 ? null : dictionaries.get(i).get(id - 1));
+                }
+                case TIMESTAMP -> {
+                    if (in.readBoolean()) {
+                        long millis = unzigzag(readVarLong());
+                        if (fields[i] == UserField.BIRTH_DATE)
+                            user.setBirthDate(new Date(millis));
+                    }
+                }
+            }
+        }
+        return user;
+    }
+
+    private static void set(UserResponses user, UserField field, String value) {
+        if (field != null && field.setter != null && value != null)
+            field.setter.accept(user, value);
+    }
+
+    private String readString() throws IOException {
+        int length = (int) readVarLong();
+        if (length == 0)
+            return null;
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
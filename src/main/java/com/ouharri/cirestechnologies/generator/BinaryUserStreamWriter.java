@@ -0,0 +1,128 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link UserStreamWriter} producing compact, schema-based binary rows.
+ * <p>
+ * The file starts with {@link #MAGIC}, a version byte and its schema: the number of fields, then
+ * the name and {@link UserField.Kind} of each one. It is followed by tagged records:
+ * </p>
+ * <ul>
+ *     <li>{@link #TAG_DICTIONARY}: the field ordinal and a value appended to the dictionary of
+ *     that field, whose id is the dictionary size; written just before the first row using it,
+ *     so the file can be streamed;</li>
+ *     <li>{@link #TAG_ROW}: every field in schema order. Strings are a varint of their UTF-8
+ *     length plus one, {@code 0} standing for {@code null}, followed by the bytes; dictionary
+ *     fields are the varint id, {@code 0} standing for {@code null}; timestamps are a presence
+ *     byte followed by the zigzag varint of the epoch millis;</li>
+ *     <li>{@link #TAG_END}: the end of the file.</li>
+ * </ul>
+ * <p>
+ * City, country, company, role and gender take a byte or two per row instead of their text.
+ * Dictionaries are never reset, which suits these low-cardinality fields.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+final class BinaryUserStreamWriter implements UserStreamWriter {
+
+    static final byte[] MAGIC = {'U', 'S', 'R', 'B'};
+    static final int VERSION = 1;
+    static final int TAG_END = 0;
+    static final int TAG_DICTIONARY = 1;
+    static final int TAG_ROW = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer>[] dictionaries;
+    private final String[] values = new String[UserField.FIELDS.length];
+
+    @SuppressWarnings("unchecked")
+    BinaryUserStreamWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        this.dictionaries = new Map[UserField.FIELDS.length];
+
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        writeVarLong(UserField.FIELDS.length);
+        for (UserField field : UserField.FIELDS) {
+            writeString(field.header);
+            this.out.writeByte(field.kind.ordinal());
+            if (field.kind == UserField.Kind.DICTIONARY)
+                dictionaries[field.ordinal()] = new HashMap<>();
+        }
+    }
+
+    @Override
+    public void write(UserGeneratedResponses user) throws IOException {
+        for (UserField field : UserField.FIELDS) {
+            if (field.kind == UserField.Kind.TIMESTAMP)
+                continue;
+            String value = field.getter.apply(user);
+            values[field.ordinal()] = value;
+            if (field.kind == UserField.Kind.DICTIONARY && value != null && !dictionaries[field.ordinal()].containsKey(value)) {
+                dictionaries[field.ordinal()].put(value, dictionaries[field.ordinal()].size() + 1);
+                out.writeByte(TAG_DICTIONARY);
+                out.writeByte(field.ordinal());
+                writeString(value);
+            }
+        }
+
+        out.writeByte(TAG_ROW);
+        for (UserField field : UserField.FIELDS) {
+            String value = values[field.ordinal()];
+            switch (field.kind) {
+                case STRING -> writeString(value);
+                case DICTIONARY -> writeVarLong(value == null ? 0 : dictionaries[field.ordinal()].get(value));
+                case TIMESTAMP -> {
+                    out.writeBoolean(user.getBirthDate() != null);
+                    if (user.getBirthDate() != null)
+                        writeVarLong(zigzag(user.getBirthDate().getTime()));
+                }
+            }
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.writeByte(TAG_END);
+        out.close();
+    }
+}
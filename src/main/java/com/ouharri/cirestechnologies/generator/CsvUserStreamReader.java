@@ -0,0 +1,118 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link UserStreamReader} consuming RFC 4180 CSV as written by {@link CsvUserStreamWriter}.
+ * <p>
+ * Columns are matched by their header, so they may come in any order; unknown columns are ignored.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+final class CsvUserStreamReader implements UserStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final UserField[] columns;
+    private final List<String> record = new ArrayList<>(UserField.FIELDS.length);
+    private final StringBuilder field = new StringBuilder(64);
+
+    CsvUserStreamReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (!readRecord())
+            throw new EOFException("Missing CSV header");
+
+        this.columns = new UserField[record.size()];
+        for (int i = 0; i < columns.length; i++)
+            for (UserField candidate : UserField.FIELDS)
+                if (candidate.header.equalsIgnoreCase(record.get(i).trim()))
+                    columns[i] = candidate;
+    }
+
+    @Override
+    public UserResponses read() throws IOException {
+        if (!readRecord())
+            return null;
+
+        UserResponses user = new UserResponses();
+        for (int i = 0; i < columns.length && i < record.size(); i++) {
+            UserField column = columns[i];
+            String value = record.get(i);
+            if (column == null || value.isEmpty())
+                continue;
+            if (column.kind == UserField.Kind.TIMESTAMP)
+                user.setBirthDate(Date.from(Instant.parse(value)));
+            else if (column.setter != null)
+                column.setter.accept(user, value);
+        }
+        return user;
+    }
+
+    /**
+     * Reads the next non-empty record into {@link #record}.
+     *
+     * @return {@code false} at the end of the stream.
+     */
+    private boolean readRecord() throws IOException {
+        record.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c != '"')
+                    field.append((char) c);
+                else {
+                    reader.mark(1);
+                    if (reader.read() == '"')
+                        field.append('"');
+                    else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                }
+            } else if (c == '"')
+                quoted = true;
+            else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                if (record.isEmpty() && field.isEmpty()) {
+                    any = false;
+                    continue;
+                }
+                break;
+            } else if (c != '\r')
+                field.append((char) c);
+        }
+
+        if (quoted)
+            throw new EOFException("Unterminated quoted CSV field");
+        if (!any)
+            return false;
+        record.add(field.toString());
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,80 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link UserStreamWriter} producing RFC 4180 CSV with a header line.
+ * <p>
+ * Fields are written in {@link UserField} order; birth dates as ISO-8601 instants. Fields holding
+ * a comma, a quote or a line break are quoted, empty fields stand for {@code null}.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+final class CsvUserStreamWriter implements UserStreamWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+
+    CsvUserStreamWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (UserField field : UserField.FIELDS) {
+            if (field.ordinal() > 0)
+                writer.write(',');
+            writer.write(field.header);
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(UserGeneratedResponses user) throws IOException {
+        for (UserField field : UserField.FIELDS) {
+            if (field.ordinal() > 0)
+                writer.write(',');
+            if (field.kind == UserField.Kind.TIMESTAMP) {
+                if (user.getBirthDate() != null)
+                    writer.write(user.getBirthDate().toInstant().toString());
+            } else
+                writeField(field.getter.apply(user));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null)
+            return;
+
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.ouharri.cirestechnologies.model.enums.GenerationCompression;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.model.enums.GenerationJobStatus;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of an asynchronous user generation job, spooled to a file on local disk.
+ * <p>
+ * The job is written by the thread running it and read by status requests, so its mutable
+ * state is volatile or atomic.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+public class GenerationJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final Instant createdAt = Instant.now();
+    private final int count;
+    private final long seed;
+    private final GenerationFormat format;
+    private final GenerationCompression compression;
+    private final int level;
+    private final Path file;
+    private final AtomicLong generated = new AtomicLong();
+    private volatile GenerationJobStatus status = GenerationJobStatus.PENDING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public GenerationJob(int count, long seed, GenerationFormat format, GenerationCompression compression, int level, Path directory) {
+        this.count = count;
+        this.seed = seed;
+        this.format = format;
+        this.compression = compression;
+        this.level = level;
+        this.file = directory.resolve(id + "." + format.getExtension() + compression.getSuffix());
+    }
+
+    /**
+     * @return The name under which the file is downloaded.
+     */
+    public String fileName() {
+        return "generated_" + count + "_users." + format.getExtension() + compression.getSuffix();
+    }
+
+    /**
+     * @return The file the users are spooled to while the job runs.
+     */
+    public Path partFile() {
+        return file.resolveSibling(file.getFileName() + ".part");
+    }
+
+    /**
+     * Marks the job as running.
+     */
+    public void start() {
+        status = GenerationJobStatus.RUNNING;
+    }
+
+    /**
+     * Records users spooled to the file.
+     *
+     * @param users The number of users just written.
+     */
+    public void progress(int users) {
+        generated.addAndGet(users);
+    }
+
+    /**
+     * Marks the job as completed; its file can be downloaded.
+     */
+    public void complete() {
+        finishedAt = Instant.now();
+        status = GenerationJobStatus.COMPLETED;
+    }
+
+    /**
+     * Marks the job as failed.
+     *
+     * @param reason Why the job failed.
+     */
+    public void fail(String reason) {
+        error = reason;
+        finishedAt = Instant.now();
+        status = GenerationJobStatus.FAILED;
+    }
+
+    /**
+     * @return Whether the job is over, successfully or not.
+     */
+    public boolean isFinished() {
+        return status == GenerationJobStatus.COMPLETED || status == GenerationJobStatus.FAILED;
+    }
+}
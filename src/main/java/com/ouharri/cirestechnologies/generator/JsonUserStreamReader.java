@@ -0,0 +1,43 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link UserStreamReader} consuming either a JSON array or newline-delimited JSON.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+final class JsonUserStreamReader implements UserStreamReader {
+
+    private final JsonParser parser;
+    private final ObjectReader reader;
+
+    JsonUserStreamReader(ObjectMapper mapper, InputStream in, boolean array) throws IOException {
+        this.reader = mapper.readerFor(UserResponses.class);
+        this.parser = mapper.getFactory().createParser(in);
+
+        if (array && parser.nextToken() != JsonToken.START_ARRAY)
+            throw new JsonParseException(parser, "Expected a JSON array of users");
+    }
+
+    @Override
+    public UserResponses read() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY)
+            return null;
+        return reader.readValue(parser);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
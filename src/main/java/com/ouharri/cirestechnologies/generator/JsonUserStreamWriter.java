@@ -0,0 +1,54 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link UserStreamWriter} producing either a JSON array or newline-delimited JSON.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+final class JsonUserStreamWriter implements UserStreamWriter {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private final boolean array;
+
+    JsonUserStreamWriter(ObjectMapper mapper, OutputStream out, boolean array) throws IOException {
+        this.writer = mapper.writerFor(UserGeneratedResponses.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        this.array = array;
+
+        if (array)
+            generator.writeStartArray();
+        else
+            generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(UserGeneratedResponses user) throws IOException {
+        writer.writeValue(generator, user);
+        if (!array)
+            generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (array)
+            generator.writeEndArray();
+        generator.close();
+    }
+}
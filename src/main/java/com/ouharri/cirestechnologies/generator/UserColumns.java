@@ -0,0 +1,80 @@
+package com.ouharri.cirestechnologies.generator;
+
+/**
+ * Columnar storage of generated users.
+ * <p>
+ * Dictionary-backed fields (names, city, country, avatar, company, job position) are stored as
+ * indexes into the dictionaries of the {@link UserGeneratorEngine} that generated them, numeric
+ * fields as primitives, and only the per-user identifiers and password as strings. A row costs
+ * a fraction of a materialized {@code UserGeneratedResponses} and is turned into one with
+ * {@link UserGeneratorEngine#materialize(UserColumns, int)}.
+ * </p>
+ * <p>
+ * Columns are written by a single thread and must be safely published before being read by
+ * another one.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public final class UserColumns {
+
+    final int[] firstName;
+    final int[] lastName;
+    final long[] birthDate;
+    final int[] city;
+    final int[] country;
+    final int[] avatar;
+    final int[] company;
+    final int[] jobPosition;
+    final int[] mobile;
+    final String[] username;
+    final String[] email;
+    final String[] password;
+    final byte[] role;
+    final byte[] gender;
+
+    /**
+     * Creates empty columns for the given number of users.
+     *
+     * @param capacity The number of rows.
+     */
+    public UserColumns(int capacity) {
+        this.firstName = new int[capacity];
+        this.lastName = new int[capacity];
+        this.birthDate = new long[capacity];
+        this.city = new int[capacity];
+        this.country = new int[capacity];
+        this.avatar = new int[capacity];
+        this.company = new int[capacity];
+        this.jobPosition = new int[capacity];
+        this.mobile = new int[capacity];
+        this.username = new String[capacity];
+        this.email = new String[capacity];
+        this.password = new String[capacity];
+        this.role = new byte[capacity];
+        this.gender = new byte[capacity];
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int capacity() {
+        return username.length;
+    }
+
+    /**
+     * @param row The row.
+     * @return The username of the user at the given row.
+     */
+    public String username(int row) {
+        return username[row];
+    }
+
+    /**
+     * @param row The row.
+     * @return The e-mail of the user at the given row.
+     */
+    public String email(int row) {
+        return email[row];
+    }
+}
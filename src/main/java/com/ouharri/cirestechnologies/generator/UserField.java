@@ -0,0 +1,65 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import com.ouharri.cirestechnologies.model.enums.Role;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Fields of a user in the CSV and binary files, in file order.
+ * <p>
+ * The order is the column order of CSV files and the field order of binary rows; changing it
+ * makes existing files unreadable. Text fields are read and written through the accessors of
+ * each constant, the {@link Kind#TIMESTAMP} birth date directly by the writers and readers.
+ * Fields without a setter are not part of {@link UserResponses} and are skipped on upload, as
+ * they are in JSON files.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+enum UserField {
+
+    FIRSTNAME("firstname", Kind.STRING, UserGeneratedResponses::getFirstname, UserResponses::setFirstname),
+    LASTNAME("lastname", Kind.STRING, UserGeneratedResponses::getLastname, UserResponses::setLastname),
+    BIRTH_DATE("birthDate", Kind.TIMESTAMP, null, null),
+    CITY("city", Kind.DICTIONARY, UserGeneratedResponses::getCity, UserResponses::setCity),
+    COUNTRY("country", Kind.DICTIONARY, UserGeneratedResponses::getCountry, UserResponses::setCountry),
+    AVATAR("avatar", Kind.STRING, UserGeneratedResponses::getAvatar, UserResponses::setAvatar),
+    COMPANY("company", Kind.DICTIONARY, UserGeneratedResponses::getCompany, UserResponses::setCompany),
+    JOB_POSITION("jobPosition", Kind.STRING, UserGeneratedResponses::getJobPosition, UserResponses::setJobPosition),
+    MOBILE("mobile", Kind.STRING, UserGeneratedResponses::getMobile, UserResponses::setMobile),
+    USERNAME("username", Kind.STRING, UserGeneratedResponses::getUsername, UserResponses::setUsername),
+    EMAIL("email", Kind.STRING, UserGeneratedResponses::getEmail, UserResponses::setEmail),
+    PASSWORD("password", Kind.STRING, UserGeneratedResponses::getPassword, UserResponses::setPassword),
+    ROLE("role", Kind.DICTIONARY,
+            user -> user.getRole() == null ? null : user.getRole().name(),
+            (user, value) -> user.setRole(value == null ? null : Role.valueOf(value))),
+    GENDER("gender", Kind.DICTIONARY,
+            user -> user.getGender() == null ? null : user.getGender().name(),
+            null);
+
+    static final UserField[] FIELDS = values();
+
+    final String header;
+    final Kind kind;
+    final Function<UserGeneratedResponses, String> getter;
+    final BiConsumer<UserResponses, String> setter;
+
+    UserField(String header, Kind kind, Function<UserGeneratedResponses, String> getter, BiConsumer<UserResponses, String> setter) {
+        this.header = header;
+        this.kind = kind;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * How a field is encoded in binary rows.
+     */
+    enum Kind {
+        STRING,
+        DICTIONARY,
+        TIMESTAMP
+    }
+}
@@ -0,0 +1,221 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Splits a generation of {@code count} users into contiguous {@code [start, end)} chunks and
+ * runs them on a single, fixed-size pool.
+ * <p>
+ * Chunks are plain index ranges, so nothing is boxed or grouped. Each chunk is generated into
+ * compact {@link UserColumns}, checked for clashing identifiers, then materialized into its
+ * slice of a pre-sized result. The {@code generationTaskExecutor} is the only source of
+ * parallelism of the generation; its size is set by {@code application.users.generation.parallelism}
+ * and defaults to the number of available processors.
+ * </p>
+ * <p>
+ * Every chunk owns a {@link SplittableRandom} split in chunk order from a root seeded with the
+ * generation seed. Since {@link #CHUNK_SIZE} is fixed, the same seed and count always produce
+ * the same users, whatever the parallelism.
+ * </p>
+ * <p>
+ * Seeded generations ignore the database, so that they stay reproducible. Unseeded ones, through
+ * {@link #streamAvoidingExisting} and {@link #generateColumns}, check each generated chunk
+ * instead: users whose username or e-mail already exists in the database get their identifiers
+ * re-drawn from the chunk's random generator until none clash, so files can be imported without
+ * duplicate rejections.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Component
+public class UserGenerationScheduler {
+
+    /**
+     * Number of users per chunk. Changing it changes the users produced for a given seed.
+     */
+    public static final int CHUNK_SIZE = 1000;
+
+    private final UserGeneratorEngine engine;
+    private final UserIdentifierIndex identifierIndex;
+    private final ThreadPoolTaskExecutor executor;
+    private final int parallelism;
+
+    public UserGenerationScheduler(
+            UserGeneratorEngine engine,
+            UserIdentifierIndex identifierIndex,
+            @Qualifier("generationTaskExecutor") ThreadPoolTaskExecutor executor
+    ) {
+        this.engine = engine;
+        this.identifierIndex = identifierIndex;
+        this.executor = executor;
+        this.parallelism = executor.getMaxPoolSize();
+    }
+
+    /**
+     * Generates {@code count} users into a pre-sized list.
+     *
+     * @param count The number of users to generate.
+     * @param seed  The seed of the generation.
+     * @return The generated users, in index order.
+     */
+    public List<UserGeneratedResponses> generate(int count, long seed) {
+        UserGeneratedResponses[] users = new UserGeneratedResponses[count];
+        SplittableRandom root = new SplittableRandom(seed);
+        CompletableFuture<?>[] chunks = new CompletableFuture[chunkCount(count)];
+
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            int start = chunk * CHUNK_SIZE;
+            int end = Math.min(count, start + CHUNK_SIZE);
+            SplittableRandom random = root.split();
+            chunks[chunk] = CompletableFuture.runAsync(() -> {
+                UserColumns columns = fill(start, end - start, random, null);
+                for (int row = 0; row < end - start; row++)
+                    users[start + row] = engine.materialize(columns, row);
+            }, executor);
+        }
+
+        CompletableFuture.allOf(chunks).join();
+        return Arrays.asList(users);
+    }
+
+    /**
+     * Generates {@code count} users and hands them to the consumer chunk by chunk, in index order.
+     * <p>
+     * At most twice the parallelism of chunks are in flight ahead of the consumer, so memory
+     * stays bounded whatever {@code count} is.
+     * </p>
+     *
+     * @param count    The number of users to generate.
+     * @param seed     The seed of the generation.
+     * @param consumer The consumer of the generated chunks, called on the calling thread.
+     * @throws IOException If the consumer fails; pending chunks are cancelled.
+     */
+    public void stream(int count, long seed, ChunkConsumer consumer) throws IOException {
+        stream(count, seed, null, consumer);
+    }
+
+    /**
+     * Generates {@code count} users as {@link #stream(int, long, ChunkConsumer)} does, re-drawing
+     * the identifiers already in the database. The users then depend on the database content, so
+     * this is only meant for unseeded generations.
+     *
+     * @param count    The number of users to generate.
+     * @param seed     The seed of the generation.
+     * @param consumer The consumer of the generated chunks, called on the calling thread.
+     * @throws IOException If the consumer fails; pending chunks are cancelled.
+     */
+    public void streamAvoidingExisting(int count, long seed, ChunkConsumer consumer) throws IOException {
+        stream(count, seed, identifierIndex.snapshot(), consumer);
+    }
+
+    private void stream(int count, long seed, UserIdentifierIndex.Snapshot existing, ChunkConsumer consumer) throws IOException {
+        SplittableRandom root = new SplittableRandom(seed);
+        int window = parallelism * 2;
+        Deque<CompletableFuture<UserGeneratedResponses[]>> pending = new ArrayDeque<>(window);
+        int next = 0;
+
+        try {
+            while (next < count || !pending.isEmpty()) {
+                while (next < count && pending.size() < window) {
+                    int start = next;
+                    int end = Math.min(count, start + CHUNK_SIZE);
+                    SplittableRandom random = root.split();
+                    pending.add(CompletableFuture.supplyAsync(
+                            () -> materialize(fill(start, end - start, random, existing)),
+                            executor
+                    ));
+                    next = end;
+                }
+
+                consumer.accept(pending.remove().join());
+            }
+        } catch (IOException | RuntimeException e) {
+            pending.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * Generates {@code count} users into chunk-sized columns, on the calling thread.
+     * <p>
+     * Indexes start at {@code firstIndex}, so successive calls with increasing indexes never
+     * produce the same username or e-mail. Identifiers are checked against the given snapshot,
+     * which callers generating in several calls take once and share between them.
+     * </p>
+     *
+     * @param firstIndex The index of the first user.
+     * @param count      The number of users to generate.
+     * @param seed       The seed of the generation.
+     * @param existing   The identifiers already in the database.
+     * @return The generated users, one {@link UserColumns} per chunk, in index order.
+     */
+    public List<UserColumns> generateColumns(long firstIndex, int count, long seed, UserIdentifierIndex.Snapshot existing) {
+        SplittableRandom root = new SplittableRandom(seed);
+        List<UserColumns> chunks = new ArrayList<>(chunkCount(count));
+        for (int start = 0; start < count; start += CHUNK_SIZE)
+            chunks.add(fill(firstIndex + start, Math.min(CHUNK_SIZE, count - start), root.split(), existing));
+        return chunks;
+    }
+
+    /**
+     * Materializes the users of the given rows.
+     *
+     * @param columns The generated users.
+     * @param from    The first row.
+     * @param to      The row after the last one.
+     * @return The users of the rows, in row order.
+     */
+    public UserGeneratedResponses[] materialize(UserColumns columns, int from, int to) {
+        UserGeneratedResponses[] users = new UserGeneratedResponses[to - from];
+        for (int row = from; row < to; row++)
+            users[row - from] = engine.materialize(columns, row);
+        return users;
+    }
+
+    private UserGeneratedResponses[] materialize(UserColumns columns) {
+        return materialize(columns, 0, columns.capacity());
+    }
+
+    /**
+     * Generates the users of a chunk, re-drawing the identifiers found in {@code existing}, unless it is {@code null}.
+     */
+    private UserColumns fill(long firstIndex, int size, SplittableRandom random, UserIdentifierIndex.Snapshot existing) {
+        UserColumns columns = new UserColumns(size);
+        for (int row = 0; row < size; row++)
+            engine.generate(firstIndex + row, random, columns, row);
+        if (existing == null)
+            return columns;
+
+        int[] conflicts = existing.conflicts(columns, 0, size);
+        while (conflicts.length > 0) {
+            for (int row : conflicts)
+                engine.redrawIdentifiers(columns, row, firstIndex + row, random);
+            conflicts = existing.conflicts(columns, conflicts);
+        }
+        return columns;
+    }
+
+    private static int chunkCount(int count) {
+        return (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Receives the generated users of one chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        void accept(UserGeneratedResponses[] users) throws IOException;
+    }
+}
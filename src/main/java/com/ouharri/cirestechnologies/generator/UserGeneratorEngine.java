@@ -0,0 +1,244 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.github.javafaker.Faker;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.enums.Gender;
+import com.ouharri.cirestechnologies.model.enums.Role;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Allocation-light generator of realistic users.
+ * <p>
+ * The Faker dictionaries (names, cities, countries, companies, job positions, avatars and
+ * e-mail domains) are resolved once at startup into plain arrays. Each user is then assembled
+ * from cheap index picks and a per-thread {@link StringBuilder}, instead of a dozen
+ * YAML lookups and regex-based {@code bothify}/{@code numerify} calls per user. Users can also be
+ * generated straight into compact {@link UserColumns} and materialized only when written out.
+ * </p>
+ * <p>
+ * The dictionaries are sampled from a Faker with a fixed seed and birth dates are drawn
+ * relative to a fixed reference date, so a given sequence of random values always yields
+ * the same users, on every node and across restarts.
+ * </p>
+ * <p>
+ * Usernames and e-mails end with the base-36 index of the user in its file, which makes them
+ * unique within a file by construction. Identifiers that clash with existing users can be
+ * re-drawn with {@link #redrawIdentifiers}, which appends a random salt after the index.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Component
+public class UserGeneratorEngine {
+
+    private static final int DICTIONARY_SAMPLES = 4096;
+    private static final int MAX_SLUG_LENGTH = 24;
+    private static final long DICTIONARY_SEED = 0x5EED_CAFEL;
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2024, 1, 1);
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String ALPHANUMERIC = LETTERS + "0123456789";
+    private static final Role[] ROLES = Role.values();
+    private static final Gender[] GENDERS = Gender.values();
+
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final String[] firstNameSlugs;
+    private final String[] lastNameSlugs;
+    private final String[] cities;
+    private final String[] countries;
+    private final String[] companies;
+    private final String[] jobPositions;
+    private final String[] avatars;
+    private final String[] emailDomains;
+    private final long minBirthDate;
+    private final long birthDateSpan;
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() -> new StringBuilder(64));
+    private final ThreadLocal<UserColumns> scratch = ThreadLocal.withInitial(() -> new UserColumns(1));
+
+    /**
+     * Preloads the dictionaries from a Faker seeded with {@link #DICTIONARY_SEED}.
+     */
+    public UserGeneratorEngine() {
+        Faker faker = new Faker(new Random(DICTIONARY_SEED));
+        this.firstNames = sample(() -> faker.name().firstName());
+        this.lastNames = sample(() -> faker.name().lastName());
+        this.firstNameSlugs = slugs(firstNames);
+        this.lastNameSlugs = slugs(lastNames);
+        this.cities = sample(() -> faker.address().city());
+        this.countries = sample(() -> faker.address().country());
+        this.companies = sample(() -> faker.company().name());
+        this.jobPositions = sample(() -> faker.job().position());
+        this.avatars = sample(() -> faker.avatar().image());
+        this.emailDomains = sample(() -> {
+            String email = faker.internet().emailAddress();
+            return email.substring(email.indexOf('@') + 1);
+        });
+
+        // Same window as Faker's birthday(), between 18 and 65 years before the reference date.
+        this.minBirthDate = REFERENCE_DATE.minusYears(65).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        this.birthDateSpan = REFERENCE_DATE.minusYears(18).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - minBirthDate;
+    }
+
+    private static String[] sample(Supplier<String> source) {
+        Set<String> values = new LinkedHashSet<>();
+        for (int i = 0; i < DICTIONARY_SAMPLES; i++)
+            values.add(source.get());
+        return values.toArray(String[]::new);
+    }
+
+    private static String[] slugs(String[] names) {
+        String[] slugs = new String[names.length];
+        for (int i = 0; i < names.length; i++)
+            slugs[i] = slug(names[i]);
+        return slugs;
+    }
+
+    private static String slug(String name) {
+        StringBuilder slug = new StringBuilder(name.length());
+        for (char c : name.toLowerCase(Locale.ROOT).toCharArray())
+            if (c >= 'a' && c <= 'z' && slug.length() < MAX_SLUG_LENGTH)
+                slug.append(c);
+        return slug.isEmpty() ? "user" : slug.toString();
+    }
+
+    private static String pick(String[] values, RandomGenerator random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void appendRandom(StringBuilder sb, String alphabet, int length, RandomGenerator random) {
+        for (int i = 0; i < length; i++)
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+
+    /**
+     * Generates a single user.
+     *
+     * @param index  The index of the user in its file, embedded in its username and e-mail.
+     * @param random The source of randomness; it is only used by the calling thread.
+     *               The same sequence of random values always yields the same user.
+     * @return The generated user.
+     */
+    public UserGeneratedResponses generate(long index, RandomGenerator random) {
+        UserColumns row = scratch.get();
+        generate(index, random, row, 0);
+        return materialize(row, 0);
+    }
+
+    /**
+     * Generates a single user into a row of the given columns.
+     * Consumes the same random values as {@link #generate(long, RandomGenerator)}.
+     *
+     * @param index   The index of the user in its file, embedded in its username and e-mail.
+     * @param random  The source of randomness; it is only used by the calling thread.
+     * @param columns The columns to write to.
+     * @param row     The row to write.
+     */
+    public void generate(long index, RandomGenerator random, UserColumns columns, int row) {
+        int first = random.nextInt(firstNames.length);
+        int last = random.nextInt(lastNames.length);
+        StringBuilder sb = builders.get();
+
+        columns.firstName[row] = first;
+        columns.lastName[row] = last;
+        columns.birthDate[row] = minBirthDate + random.nextLong(birthDateSpan);
+        columns.city[row] = random.nextInt(cities.length);
+        columns.country[row] = random.nextInt(countries.length);
+        columns.avatar[row] = random.nextInt(avatars.length);
+        columns.company[row] = random.nextInt(companies.length);
+        columns.jobPosition[row] = random.nextInt(jobPositions.length);
+        columns.mobile[row] = random.nextInt(1_000_000_000);
+        columns.username[row] = username(sb, index, null, random);
+        columns.email[row] = email(sb, firstNameSlugs[first], lastNameSlugs[last], index, null, random);
+        columns.password[row] = password(sb, random);
+        columns.role[row] = (byte) (random.nextBoolean() ? Role.ROLE : Role.ADMIN).ordinal();
+        columns.gender[row] = (byte) (random.nextBoolean() ? Gender.MALE : Gender.FEMALE).ordinal();
+    }
+
+    /**
+     * Builds the user stored at a row of the given columns.
+     *
+     * @param columns The columns, filled by this engine.
+     * @param row     The row to read.
+     * @return The user of the row.
+     */
+    public UserGeneratedResponses materialize(UserColumns columns, int row) {
+        return UserGeneratedResponses.builder()
+                .firstname(firstNames[columns.firstName[row]])
+                .lastname(lastNames[columns.lastName[row]])
+                .birthDate(new Date(columns.birthDate[row]))
+                .city(cities[columns.city[row]])
+                .country(countries[columns.country[row]])
+                .avatar(avatars[columns.avatar[row]])
+                .company(companies[columns.company[row]])
+                .jobPosition(jobPositions[columns.jobPosition[row]])
+                .mobile(mobile(builders.get(), columns.mobile[row]))
+                .username(columns.username[row])
+                .email(columns.email[row])
+                .password(columns.password[row])
+                .role(ROLES[columns.role[row]])
+                .gender(GENDERS[columns.gender[row]])
+                .build();
+    }
+
+    private static String mobile(StringBuilder sb, int number) {
+        String digits = Integer.toString(number);
+        sb.setLength(0);
+        sb.append('0');
+        for (int i = digits.length(); i < 9; i++)
+            sb.append('0');
+        return sb.append(digits).toString();
+    }
+
+    /**
+     * Replaces the username and e-mail of a generated user with salted ones, keeping the index
+     * they embed so they stay unique within the file.
+     *
+     * @param columns The columns holding the user whose identifiers clash with existing ones.
+     * @param row     The row of the user.
+     * @param index   The index of the user in its file.
+     * @param random  The source of randomness of the user's chunk.
+     */
+    public void redrawIdentifiers(UserColumns columns, int row, long index, RandomGenerator random) {
+        StringBuilder sb = builders.get();
+        String salt = Integer.toString(random.nextInt(36 * 36 * 36), 36);
+        columns.username[row] = username(sb, index, salt, random);
+        columns.email[row] = email(sb, firstNameSlugs[columns.firstName[row]], lastNameSlugs[columns.lastName[row]], index, salt, random);
+    }
+
+    private String username(StringBuilder sb, long index, String salt, RandomGenerator random) {
+        sb.setLength(0);
+        appendRandom(sb, LETTERS, 4, random);
+        sb.append(random.nextInt(10)).append(random.nextInt(10));
+        return appendSuffix(sb, index, salt).toString();
+    }
+
+    private String email(StringBuilder sb, String first, String last, long index, String salt, RandomGenerator random) {
+        sb.setLength(0);
+        sb.append(first).append('.').append(last).append('.');
+        return appendSuffix(sb, index, salt)
+                .append('@')
+                .append(pick(emailDomains, random))
+                .toString();
+    }
+
+    private static StringBuilder appendSuffix(StringBuilder sb, long index, String salt) {
+        sb.append(Long.toString(index, 36));
+        return salt == null ? sb : sb.append('_').append(salt);
+    }
+
+    private String password(StringBuilder sb, RandomGenerator random) {
+        sb.setLength(0);
+        appendRandom(sb, ALPHANUMERIC, 6 + random.nextInt(5), random);
+        return sb.toString();
+    }
+}
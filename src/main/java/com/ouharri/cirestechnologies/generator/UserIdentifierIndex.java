@@ -0,0 +1,232 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.ouharri.cirestechnologies.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Detects generated usernames and e-mails that already belong to users in the database.
+ * <p>
+ * The existing identifiers are streamed into two {@link IdentifierBloomFilter}s once, on startup,
+ * and shared by every generation through {@link #snapshot()}. Generated users are then checked
+ * against the filters, and only the few positives are verified in bulk with a single query per
+ * identifier column, so most chunks never touch the database.
+ * </p>
+ * <p>
+ * The users written by the imports are {@link #add added} to the filters as they are inserted.
+ * Users created any other way are picked up by a rebuild, run in the background once the filters
+ * are older than {@code application.users.generation.index-refresh} or hold more identifiers than
+ * they were sized for; generations keep using the current filters meanwhile.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Slf4j
+@Component
+public class UserIdentifierIndex {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final long MINIMUM_CAPACITY = 10_000;
+
+    private final UserRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor refresher;
+    private final Duration refreshInterval;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Object lock = new Object();
+    private volatile Snapshot current;
+    private volatile Snapshot building;
+
+    public UserIdentifierIndex(
+            UserRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("ioTaskExecutor") Executor refresher,
+            @Value("${application.users.generation.index-refresh:10m}") Duration refreshInterval
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.refresher = refresher;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Builds the filters in the background as soon as the application is ready, so that the
+     * first generation does not wait for them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresher.execute(this::snapshot);
+    }
+
+    /**
+     * Returns the identifiers currently known, building them on the first call and scheduling a
+     * background rebuild once they are stale.
+     *
+     * @return A snapshot of the existing identifiers.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (lock) {
+                if (current == null)
+                    current = load();
+                return current;
+            }
+        }
+
+        if (snapshot.isStale() && refreshing.compareAndSet(false, true)) {
+            try {
+                refresher.execute(this::refresh);
+            } catch (RuntimeException e) {
+                refreshing.set(false);
+                log.warn("Could not schedule the rebuild of the user identifier index", e);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Adds the identifiers of a user just written to the database, so that generations avoid
+     * them without waiting for the next rebuild.
+     *
+     * @param username The username of the user.
+     * @param email    The e-mail of the user.
+     */
+    public void add(String username, String email) {
+        Snapshot snapshot = current;
+        if (snapshot != null)
+            snapshot.put(username, email);
+        Snapshot next = building;
+        if (next != null && next != snapshot)
+            next.put(username, email);
+    }
+
+    private void refresh() {
+        try {
+            current = load();
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the user identifier index", e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Streams the identifiers currently stored in the database into new filters. Identifiers
+     * {@link #add added} meanwhile go to the new filters as well.
+     */
+    private Snapshot load() {
+        return transactionTemplate.execute(status -> {
+            long existing = repository.count();
+            Snapshot snapshot = new Snapshot(Math.max(MINIMUM_CAPACITY, existing * 2));
+            if (existing == 0)
+                return snapshot;
+
+            building = snapshot;
+            try {
+                try (Stream<String> stream = repository.streamAllUsernames()) {
+                    stream.forEach(snapshot.usernames::put);
+                }
+                try (Stream<String> stream = repository.streamAllEmails()) {
+                    stream.forEach(snapshot.emails::put);
+                }
+            } finally {
+                building = null;
+            }
+            return snapshot;
+        });
+    }
+
+    /**
+     * Identifiers of the database at the time of its build, plus those {@link #add added} since;
+     * safe to share between threads.
+     */
+    public final class Snapshot {
+
+        private final IdentifierBloomFilter usernames;
+        private final IdentifierBloomFilter emails;
+        private final long capacity;
+        private final Instant builtAt = Instant.now();
+        private final AtomicLong added = new AtomicLong();
+
+        private Snapshot(long capacity) {
+            this.usernames = new IdentifierBloomFilter(capacity, FALSE_POSITIVE_RATE);
+            this.emails = new IdentifierBloomFilter(capacity, FALSE_POSITIVE_RATE);
+            this.capacity = capacity;
+        }
+
+        private void put(String username, String email) {
+            usernames.put(username);
+            emails.put(email);
+            added.incrementAndGet();
+        }
+
+        private boolean isStale() {
+            return added.get() > capacity / 2 || Instant.now().isAfter(builtAt.plus(refreshInterval));
+        }
+
+        /**
+         * Returns the rows, among {@code [from, to)}, of the users whose username or e-mail
+         * already exists in the database.
+         *
+         * @param users The generated users.
+         * @param from  The first row to check.
+         * @param to    The row after the last one to check.
+         * @return The rows of the clashing users.
+         */
+        public int[] conflicts(UserColumns users, int from, int to) {
+            return conflicts(users, IntStream.range(from, to).toArray());
+        }
+
+        /**
+         * Returns those of the given rows whose user has a username or e-mail that already
+         * exists in the database.
+         *
+         * @param users The generated users.
+         * @param rows  The rows to check.
+         * @return The rows of the clashing users.
+         */
+        public int[] conflicts(UserColumns users, int[] rows) {
+            int[] suspects = IntStream.of(rows)
+                    .filter(i -> usernames.mightContain(users.username(i)) || emails.mightContain(users.email(i)))
+                    .toArray();
+            if (suspects.length == 0)
+                return suspects;
+
+            Set<String> candidateUsernames = new HashSet<>();
+            Set<String> candidateEmails = new HashSet<>();
+            for (int i : suspects) {
+                candidateUsernames.add(users.username(i));
+                candidateEmails.add(users.email(i));
+            }
+
+            Set<String> existingUsernames = new HashSet<>();
+            Set<String> existingEmails = new HashSet<>();
+            for (UserRepository.UserIdentifiers existing : repository.findIdentifiers(candidateEmails, candidateUsernames)) {
+                existingUsernames.add(existing.getUsername());
+                existingEmails.add(existing.getEmail());
+            }
+
+            return IntStream.of(suspects)
+                    .filter(i -> existingUsernames.contains(users.username(i)) || existingEmails.contains(users.email(i)))
+                    .toArray();
+        }
+    }
+}
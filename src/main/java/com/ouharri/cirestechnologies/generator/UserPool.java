@@ -0,0 +1,201 @@
+package com.ouharri.cirestechnologies.generator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process pool of pre-generated users, served to unseeded generation requests.
+ * <p>
+ * Users are kept as chunk-sized {@link UserColumns}, a few dozen bytes per user instead of a
+ * tree of strings, and only materialized when a request takes them. A request is served by
+ * slicing rows off the head of the pool; rows are never served twice. When fewer than
+ * {@code application.users.generation.pool.low-water} users remain, a single background task on
+ * the {@code generationTaskExecutor} tops the pool up to
+ * {@code application.users.generation.pool.size}. A size of {@code 0} disables the pool.
+ * </p>
+ * <p>
+ * Pooled users carry indexes from a counter shared by the whole pool, so their usernames and
+ * e-mails are unique across everything the pool served within this process. The counter restarts
+ * at 0 with every process, on every node, so users served by different processes may share
+ * identifiers: only the ones already imported are avoided, as pooled users are checked against the
+ * database when generated, not when served, through one {@link UserIdentifierIndex} snapshot per
+ * refill.
+ * </p>
+ * <p>
+ * Hits and misses are published as the {@code users.pool.hits} and {@code users.pool.misses}
+ * counters, and the number of pooled users as the {@code users.pool.available} gauge.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Slf4j
+@Component
+public class UserPool {
+
+    private final UserGenerationScheduler scheduler;
+    private final UserIdentifierIndex identifierIndex;
+    private final int size;
+    private final int lowWater;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final Executor refiller;
+    private final Counter hits;
+    private final Counter misses;
+    private int available;
+    private long nextIndex;
+
+    public UserPool(
+            UserGenerationScheduler scheduler,
+            UserIdentifierIndex identifierIndex,
+            @Qualifier("generationTaskExecutor") Executor refiller,
+            MeterRegistry registry,
+            @Value("${application.users.generation.pool.size:200000}") int size,
+            @Value("${application.users.generation.pool.low-water:50000}") int lowWater
+    ) {
+        this.scheduler = scheduler;
+        this.identifierIndex = identifierIndex;
+        this.size = Math.max(0, size);
+        this.lowWater = Math.min(lowWater, this.size);
+        this.refiller = refiller;
+        this.hits = Counter.builder("users.pool.hits")
+                .description("Generation requests served from the pool")
+                .register(registry);
+        this.misses = Counter.builder("users.pool.misses")
+                .description("Generation requests the pool could not serve")
+                .register(registry);
+        Gauge.builder("users.pool.available", this, UserPool::available)
+                .description("Pre-generated users in the pool")
+                .register(registry);
+    }
+
+    /**
+     * Fills the pool once the application is ready, so startup is not delayed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refillIfNeeded();
+    }
+
+    /**
+     * Serves {@code count} users from the pool, chunk by chunk, if it holds enough of them.
+     *
+     * @param count    The number of users to serve.
+     * @param consumer The consumer of the served users, called on the calling thread.
+     * @return {@code false} if the pool holds fewer than {@code count} users; nothing is consumed then.
+     * @throws IOException If the consumer fails; the taken users are discarded.
+     */
+    public boolean serve(int count, UserGenerationScheduler.ChunkConsumer consumer) throws IOException {
+        List<Segment> slices = take(count);
+        refillIfNeeded();
+
+        if (slices == null) {
+            misses.increment();
+            return false;
+        }
+
+        hits.increment();
+        for (Segment slice : slices)
+            consumer.accept(scheduler.materialize(slice.columns, slice.from, slice.to));
+        return true;
+    }
+
+    /**
+     * @return The number of users currently in the pool.
+     */
+    public int available() {
+        lock.lock();
+        try {
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Segment> take(int count) {
+        lock.lock();
+        try {
+            if (count > available)
+                return null;
+
+            List<Segment> slices = new ArrayList<>();
+            int remaining = count;
+            while (remaining > 0) {
+                Segment head = segments.peekFirst();
+                int taken = Math.min(remaining, head.to - head.from);
+                slices.add(new Segment(head.columns, head.from, head.from + taken));
+                head.from += taken;
+                if (head.from == head.to)
+                    segments.removeFirst();
+                remaining -= taken;
+            }
+            available -= count;
+            return slices;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refillIfNeeded() {
+        if (size > 0 && available() < lowWater && refilling.compareAndSet(false, true))
+            refiller.execute(this::refill);
+    }
+
+    private void refill() {
+        try {
+            UserIdentifierIndex.Snapshot existing = identifierIndex.snapshot();
+            int missing;
+            while ((missing = size - available()) > 0) {
+                int batch = Math.min(missing, UserGenerationScheduler.CHUNK_SIZE * 10);
+                List<UserColumns> chunks = scheduler.generateColumns(nextIndex, batch, ThreadLocalRandom.current().nextLong(), existing);
+                nextIndex += batch;
+
+                lock.lock();
+                try {
+                    for (UserColumns chunk : chunks)
+                        segments.addLast(new Segment(chunk, 0, chunk.capacity()));
+                    available += batch;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error refilling the user pool", e);
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * Rows {@code [from, to)} of a chunk; {@code from} advances as rows are served.
+     */
+    private static final class Segment {
+
+        private final UserColumns columns;
+        private final int to;
+        private int from;
+
+        private Segment(UserColumns columns, int from, int to) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Incremental reader of uploaded user files, the counterpart of {@link UserStreamWriter}.
+ * Users are decoded one at a time, so a file never has to be held in memory as a whole.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public interface UserStreamReader extends Closeable {
+
+    /**
+     * Opens a reader for the given format on top of the given stream.
+     * Closing the reader closes the stream.
+     *
+     * @param format The format of the file.
+     * @param in     The source stream.
+     * @param mapper The object mapper used to deserialize JSON users.
+     * @return A reader positioned before the first user.
+     * @throws IOException If the file header cannot be read or is invalid.
+     */
+    static UserStreamReader open(GenerationFormat format, InputStream in, ObjectMapper mapper) throws IOException {
+        return switch (format) {
+            case JSON -> new JsonUserStreamReader(mapper, in, true);
+            case NDJSON -> new JsonUserStreamReader(mapper, in, false);
+            case CSV -> new CsvUserStreamReader(in);
+            case BINARY -> new BinaryUserStreamReader(in);
+        };
+    }
+
+    /**
+     * Reads the next user.
+     *
+     * @return The next user, or {@code null} at the end of the file.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    UserResponses read() throws IOException;
+}
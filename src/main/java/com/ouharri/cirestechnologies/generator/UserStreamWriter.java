@@ -0,0 +1,52 @@
+package com.ouharri.cirestechnologies.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Incremental writer emitting generated users to an output stream one at a time,
+ * so that nothing but the user being serialized has to be kept in memory.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public interface UserStreamWriter extends Closeable {
+
+    /**
+     * Opens a writer for the requested format on top of the given stream.
+     * Closing the writer completes the document and closes the stream.
+     *
+     * @param format The output format.
+     * @param out    The target stream.
+     * @param mapper The object mapper used to serialize users.
+     * @return A writer ready to accept users.
+     * @throws IOException If the document header cannot be written.
+     */
+    static UserStreamWriter open(GenerationFormat format, OutputStream out, ObjectMapper mapper) throws IOException {
+        return switch (format) {
+            case JSON -> new JsonUserStreamWriter(mapper, out, true);
+            case NDJSON -> new JsonUserStreamWriter(mapper, out, false);
+            case CSV -> new CsvUserStreamWriter(out);
+            case BINARY -> new BinaryUserStreamWriter(out);
+        };
+    }
+
+    /**
+     * Writes a single user.
+     *
+     * @param user The user to write.
+     * @throws IOException If the user cannot be written.
+     */
+    void write(UserGeneratedResponses user) throws IOException;
+
+    /**
+     * Flushes buffered output down to the underlying stream.
+     *
+     * @throws IOException If the stream cannot be flushed.
+     */
+    void flush() throws IOException;
+}
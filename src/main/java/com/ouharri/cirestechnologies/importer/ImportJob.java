@@ -0,0 +1,125 @@
+package com.ouharri.cirestechnologies.importer;
+
+import com.ouharri.cirestechnologies.model.dto.responses.ImportRecordResponse;
+import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDTO;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.model.enums.ImportJobStatus;
+import com.ouharri.cirestechnologies.model.enums.ImportStatus;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of an asynchronous user import job, whose file is spooled to local disk.
+ * <p>
+ * The job is its own {@link ImportListener}: the import threads update its counters while
+ * status requests read them, so its mutable state is volatile or atomic.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+public class ImportJob implements ImportListener {
+
+    private final UUID id = UUID.randomUUID();
+    private final Instant createdAt = Instant.now();
+    private final String owner;
+    private final String fileName;
+    private final GenerationFormat format;
+    private final Path file;
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong hashed = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile ImportJobStatus status = ImportJobStatus.PENDING;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile boolean replayed;
+
+    public ImportJob(String owner, String fileName, GenerationFormat format, Path directory) {
+        this.owner = owner;
+        this.fileName = fileName;
+        this.format = format;
+        this.file = directory.resolve(id + "." + format.getExtension());
+    }
+
+    @Override
+    public void parsed(int records) {
+        parsed.addAndGet(records);
+    }
+
+    @Override
+    public void hashed(int users) {
+        hashed.addAndGet(users);
+    }
+
+    @Override
+    public void outcome(ImportRecordResponse outcome) {
+        (outcome.getStatus() == ImportStatus.IMPORTED ? inserted : rejected).incrementAndGet();
+    }
+
+    /**
+     * @return The records imported or rejected per second since the job started.
+     */
+    public double throughput() {
+        Instant start = startedAt;
+        if (start == null)
+            return 0;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return (inserted.get() + rejected.get()) * 1000.0 / millis;
+    }
+
+    /**
+     * Marks the job as running.
+     */
+    public void start() {
+        startedAt = Instant.now();
+        status = ImportJobStatus.RUNNING;
+    }
+
+    /**
+     * Marks the job as completed.
+     */
+    public void complete() {
+        finishedAt = Instant.now();
+        status = ImportJobStatus.COMPLETED;
+    }
+
+    /**
+     * Marks the job as completed with the counters of a previous import of the same content,
+     * which is not imported again.
+     *
+     * @param previous The summary of the previous import.
+     */
+    public void replay(UploadSummaryResponseDTO previous) {
+        parsed.set(previous.getTotalRecords());
+        inserted.set(previous.getSuccessfullyImported());
+        rejected.set(previous.getFailedToImport());
+        replayed = true;
+        complete();
+    }
+
+    /**
+     * Marks the job as failed.
+     *
+     * @param reason Why the job failed.
+     */
+    public void fail(String reason) {
+        error = reason;
+        finishedAt = Instant.now();
+        status = ImportJobStatus.FAILED;
+    }
+
+    /**
+     * @return Whether the job is over, successfully or not.
+     */
+    public boolean isFinished() {
+        return status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED;
+    }
+}
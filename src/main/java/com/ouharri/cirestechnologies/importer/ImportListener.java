@@ -0,0 +1,35 @@
+package com.ouharri.cirestechnologies.importer;
+
+import com.ouharri.cirestechnologies.model.dto.responses.ImportRecordResponse;
+
+/**
+ * Listener of the progress of an import, called concurrently by the import threads.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@FunctionalInterface
+public interface ImportListener {
+
+    /**
+     * Called once per record, as soon as its outcome is known, in no particular order.
+     *
+     * @param outcome The outcome of the record.
+     */
+    void outcome(ImportRecordResponse outcome);
+
+    /**
+     * Called when records have been read from the file.
+     *
+     * @param records The number of records just read.
+     */
+    default void parsed(int records) {
+    }
+
+    /**
+     * Called when passwords have been hashed.
+     *
+     * @param users The number of passwords just hashed.
+     */
+    default void hashed(int users) {
+    }
+}
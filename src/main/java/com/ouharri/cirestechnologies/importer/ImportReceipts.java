@@ -0,0 +1,216 @@
+package com.ouharri.cirestechnologies.importer;
+
+import com.ouharri.cirestechnologies.exceptions.ResourceNotCreatedException;
+import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDTO;
+import com.ouharri.cirestechnologies.model.entities.ImportReceipt;
+import com.ouharri.cirestechnologies.repositories.ImportReceiptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Idempotency of imported user files.
+ * <p>
+ * Every import entry point digests the content of its file with SHA-256 before importing it.
+ * Uploads are digested while they are {@link #spool spooled} to local disk, so their content is
+ * read once, and parsed from the spooled copy; files already on disk, which the Spring Batch job
+ * reads by partitions, are {@link #digest(Path) digested} beforehand.
+ * </p>
+ * <p>
+ * The import of a content is then {@link #claim claimed} by inserting a pending
+ * {@link ImportReceipt} under its digest, whose primary key lets a single import win. The others
+ * wait for it to {@link #complete} and replay its summary, flagged as
+ * {@link UploadSummaryResponseDTO#isReplayed() replayed}, rather than importing the content again;
+ * if it fails, its receipt is {@link #release released} and one of them claims the content in turn.
+ * A pending receipt older than {@code application.users.import.receipts.stale-after}, left by a
+ * node that stopped while importing, is taken over.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Slf4j
+@Component
+public class ImportReceipts {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final ImportReceiptRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final Duration wait;
+    private final Duration staleAfter;
+
+    public ImportReceipts(
+            ImportReceiptRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.users.import.receipts.wait:10m}") Duration wait,
+            @Value("${application.users.import.receipts.stale-after:6h}") Duration staleAfter
+    ) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.wait = wait;
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Digests a content, reading it to its end.
+     *
+     * @param in The content, closed by the caller.
+     * @return The hexadecimal SHA-256 digest of the content.
+     * @throws IOException If the content cannot be read.
+     */
+    public static String digest(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int read; (read = in.read(buffer)) != -1; )
+            digest.update(buffer, 0, read);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Copies a content to a file, digesting it on the way, so that it is read only once.
+     *
+     * @param in     The content, closed by the caller.
+     * @param target The file to copy the content to, replaced if it exists.
+     * @return The hexadecimal SHA-256 digest of the content.
+     * @throws IOException If the content cannot be read or the file written.
+     */
+    public static String spool(InputStream in, Path target) throws IOException {
+        DigestInputStream digesting = new DigestInputStream(in, sha256());
+        Files.copy(digesting, target, StandardCopyOption.REPLACE_EXISTING);
+        return HexFormat.of().formatHex(digesting.getMessageDigest().digest());
+    }
+
+    /**
+     * Digests a file.
+     *
+     * @param file The file.
+     * @return The hexadecimal SHA-256 digest of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static String digest(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return digest(in);
+        }
+    }
+
+    /**
+     * Claims the import of a content, waiting up to {@code application.users.import.receipts.wait}
+     * for an import of the same content already running elsewhere.
+     *
+     * @param digest The digest of the content.
+     * @return Empty if the caller now owns the import, and must {@link #complete} or
+     * {@link #release} it, otherwise the replayed summary of the first import of the content.
+     * @throws ResourceNotCreatedException If the content is still being imported once the wait is over.
+     */
+    public Optional<UploadSummaryResponseDTO> claim(String digest) {
+        return claim(digest, wait);
+    }
+
+    /**
+     * Claims the import of a content, waiting up to the given duration for an import of the same
+     * content already running elsewhere.
+     *
+     * @param digest The digest of the content.
+     * @param wait   How long to wait for a running import of the content; zero not to wait.
+     * @return Empty if the caller now owns the import, and must {@link #complete} or
+     * {@link #release} it, otherwise the replayed summary of the first import of the content.
+     * @throws ResourceNotCreatedException If the content is still being imported once the wait is over.
+     */
+    public Optional<UploadSummaryResponseDTO> claim(String digest, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            if (insertPending(digest))
+                return Optional.empty();
+
+            Optional<ImportReceipt> receipt = requiresNew.execute(status -> repository.findById(digest));
+            if (receipt.isEmpty())
+                continue;
+            if (receipt.get().isCompleted())
+                return Optional.of(toSummary(receipt.get()));
+            if (repository.deletePendingCreatedBefore(digest, Timestamp.from(Instant.now().minus(staleAfter))) > 0) {
+                log.warn("The import of {} was abandoned, claiming it again", digest);
+                continue;
+            }
+            if (System.nanoTime() - deadline >= 0)
+                throw new ResourceNotCreatedException("This content is being imported by another request, retry later.");
+            try {
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceNotCreatedException("Interrupted while waiting for the import of this content.");
+            }
+        }
+    }
+
+    /**
+     * Completes a claimed import with its summary, for later imports of the content to replay it.
+     *
+     * @param digest  The digest of the content.
+     * @param summary The summary of the import.
+     */
+    public void complete(String digest, UploadSummaryResponseDTO summary) {
+        repository.complete(digest, summary.getTotalRecords(), summary.getSuccessfullyImported(), summary.getFailedToImport());
+    }
+
+    /**
+     * Releases a claimed import that failed, for the content to be imported again.
+     *
+     * @param digest The digest of the content.
+     */
+    public void release(String digest) {
+        repository.deletePending(digest);
+    }
+
+    /**
+     * Inserts the pending receipt of a content in its own transaction, its primary key making
+     * sure a single import claims it.
+     */
+    private boolean insertPending(String digest) {
+        try {
+            requiresNew.executeWithoutResult(status -> repository.saveAndFlush(ImportReceipt.builder()
+                    .digest(digest)
+                    .completed(false)
+                    .build()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static UploadSummaryResponseDTO toSummary(ImportReceipt receipt) {
+        return UploadSummaryResponseDTO.builder()
+                .totalRecords(receipt.getTotalRecords())
+                .successfullyImported(receipt.getSuccessfullyImported())
+                .failedToImport(receipt.getFailedToImport())
+                .replayed(true)
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ouharri.cirestechnologies.importer;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming {@link ItemStreamReader} of the users of a byte range of a newline-delimited JSON
+ * file, as cut by the {@link UserFilePartitioner}.
+ * <p>
+ * Users are pulled one at a time from Jackson's {@code JsonParser}. The offset following the last
+ * user read is saved in the step execution context at every commit, so a restarted partition
+ * seeks straight back to it instead of reading its range again.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public class NdjsonUserItemReader extends ItemStreamSupport implements ItemStreamReader<UserResponses> {
+
+    private static final String OFFSET = "offset";
+
+    private final ObjectMapper mapper;
+    private final Path file;
+    private final long start;
+    private final long end;
+
+    private JsonParser parser;
+    private ObjectReader reader;
+    private long base;
+    private boolean exhausted;
+
+    public NdjsonUserItemReader(ObjectMapper mapper, Path file, long start, long end) {
+        this.mapper = mapper;
+        this.file = file;
+        this.start = start;
+        this.end = end;
+        setName("userFileReader");
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        super.open(executionContext);
+        String key = getExecutionContextKey(OFFSET);
+        base = executionContext.containsKey(key) ? executionContext.getLong(key) : start;
+        exhausted = base >= end;
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ).position(base);
+            parser = mapper.getFactory().createParser(Channels.newInputStream(channel));
+            reader = mapper.readerFor(UserResponses.class);
+        } catch (IOException e) {
+            throw new ItemStreamException("Error opening " + file + " at offset " + base, e);
+        }
+    }
+
+    @Override
+    public UserResponses read() throws IOException {
+        if (exhausted)
+            return null;
+        if (parser.nextToken() == null || offsetOf(parser.currentTokenLocation()) >= end) {
+            exhausted = true;
+            return null;
+        }
+        return reader.readValue(parser);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        super.update(executionContext);
+        if (parser != null)
+            executionContext.putLong(getExecutionContextKey(OFFSET), Math.min(end, offsetOf(parser.currentLocation())));
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        if (parser == null)
+            return;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Error closing " + file, e);
+        } finally {
+            parser = null;
+        }
+    }
+
+    private long offsetOf(JsonLocation location) {
+        return base + location.getByteOffset();
+    }
+}
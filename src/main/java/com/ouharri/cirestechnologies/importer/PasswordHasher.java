@@ -0,0 +1,94 @@
+package com.ouharri.cirestechnologies.importer;
+
+import com.ouharri.cirestechnologies.model.entities.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Hashing stage of the user import.
+ * <p>
+ * BCrypt is CPU-bound, so passwords are hashed on the {@code hashingTaskExecutor}, a pool sized
+ * to the cores, one task per user. Import batches hand their users over and wait, which lets the
+ * file reader and the insert of other batches run on the I/O executor meanwhile.
+ * </p>
+ * <p>
+ * Imported passwords are hashed with the application {@link PasswordEncoder}, unless
+ * {@code application.users.import.bcrypt-strength} sets a BCrypt cost factor for imports only.
+ * Every BCrypt hash carries its own cost, so such users can log in all the same. Hashes are
+ * counted by the {@code users.import.hashes} counter, whose rate is the hashes per second.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final Executor executor;
+    private final Counter hashes;
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            @Qualifier("hashingTaskExecutor") Executor executor,
+            MeterRegistry registry,
+            @Value("${application.users.import.bcrypt-strength:0}") int strength
+    ) {
+        this.encoder = strength > 0 ? new BCryptPasswordEncoder(strength) : passwordEncoder;
+        this.executor = executor;
+        this.hashes = Counter.builder("users.import.hashes")
+                .description("Passwords hashed by the user import")
+                .baseUnit("hashes")
+                .register(registry);
+    }
+
+    /**
+     * Replaces the raw password of each user by its hash.
+     *
+     * @param users The users to hash the passwords of.
+     * @return A future completed once every password is hashed.
+     */
+    public CompletableFuture<Void> hash(List<User> users) {
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[users.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            User user = users.get(i);
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                user.setPassword(encoder.encode(user.getPassword()));
+                hashes.increment();
+            }, executor);
+        }
+        return CompletableFuture.allOf(tasks);
+    }
+
+    /**
+     * Validates a user whose password is not hashed yet, so that invalid users are rejected
+     * before paying for their hash.
+     * <p>
+     * The length constraint of {@link User#getPassword() password} applies to the stored hash, as
+     * for every user saved by the application, not to the raw password, so it is not checked here.
+     * </p>
+     *
+     * @param validator The validator.
+     * @param user      The user, with its raw password.
+     * @return The constraint violations of the user.
+     */
+    public static Set<ConstraintViolation<User>> validateUnhashed(Validator validator, User user) {
+        Set<ConstraintViolation<User>> violations = new HashSet<>(validator.validate(user));
+        violations.removeIf(violation -> "password".equals(violation.getPropertyPath().toString())
+                && violation.getConstraintDescriptor().getAnnotation() instanceof Size);
+        return violations;
+    }
+}
@@ -0,0 +1,200 @@
+package com.ouharri.cirestechnologies.importer;
+
+import com.ouharri.cirestechnologies.generator.UserIdentifierIndex;
+import com.ouharri.cirestechnologies.model.entities.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk insert of new users, bypassing JPA.
+ * <p>
+ * {@code saveAll} goes through {@code merge} for each user: their {@code version} is never
+ * {@code null}, so Spring Data takes them for existing entities and selects each one before
+ * inserting it. This class assigns the identifiers on the client and writes the rows directly:
+ * </p>
+ * <ul>
+ *     <li>on PostgreSQL, with {@code COPY ... FROM STDIN}, one round trip for the whole list,
+ *     unless {@code application.users.import.copy} is {@code false};</li>
+ *     <li>otherwise, with a single JDBC batch of {@code INSERT} statements.</li>
+ * </ul>
+ * <p>
+ * Both paths run in the caller's transaction, or in their own, so a list is inserted entirely or
+ * not at all. A unique constraint violation surfaces as a
+ * {@link org.springframework.dao.DuplicateKeyException}.
+ * </p>
+ * <p>
+ * This is the writer of both the REST import and the Spring Batch job. Each call is timed by the
+ * {@code users.import.chunks} timer, tagged with the {@code method} used and the {@code outcome},
+ * and the rows written are counted by the {@code users.import.rows} counter. The identifiers of
+ * the users written are added to the {@link UserIdentifierIndex}, so generations avoid them.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Component
+public class UserBulkInserter {
+
+    private static final String COLUMNS = "id, created_at, updated_at, version, firstname, lastname, birth_date, city, country, avatar, company, job_position, mobile, username, email, password, gender, status, role, enabled, account_non_locked";
+    private static final String INSERT = "INSERT INTO _user (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String COPY = "COPY _user (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserIdentifierIndex identifierIndex;
+    private final boolean copyEnabled;
+    private final MeterRegistry registry;
+    private final Counter rows;
+    private volatile Boolean postgres;
+
+    public UserBulkInserter(
+            JdbcTemplate jdbcTemplate,
+            UserIdentifierIndex identifierIndex,
+            MeterRegistry registry,
+            @Value("${application.users.import.copy:true}") boolean copyEnabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.identifierIndex = identifierIndex;
+        this.copyEnabled = copyEnabled;
+        this.registry = registry;
+        this.rows = Counter.builder("users.import.rows")
+                .description("Users written by the user import")
+                .baseUnit("rows")
+                .register(registry);
+    }
+
+    /**
+     * Inserts the given users, assigning them an identifier and their audit fields.
+     *
+     * @param users The users to insert, none of which may exist yet.
+     * @return The number of users inserted.
+     */
+    @Transactional
+    public int insert(List<User> users) {
+        if (users.isEmpty())
+            return 0;
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (User user : users) {
+            user.setId(UUID.randomUUID());
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            user.setVersion(0L);
+        }
+
+        return jdbcTemplate.execute((Connection connection) -> {
+            boolean copy = copyEnabled && isPostgres(connection);
+            Timer.Sample sample = Timer.start(registry);
+            String outcome = "failure";
+            try {
+                int inserted = copy ? copyIn(connection, users) : batchInsert(connection, users);
+                outcome = "success";
+                rows.increment(inserted);
+                users.forEach(user -> identifierIndex.add(user.getUsername(), user.getEmail()));
+                return inserted;
+            } finally {
+                sample.stop(Timer.builder("users.import.chunks")
+                        .description("Time to write a chunk of imported users")
+                        .tag("method", copy ? "copy" : "batch")
+                        .tag("outcome", outcome)
+                        .register(registry));
+            }
+        });
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        if (postgres == null) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            postgres = "PostgreSQL".equals(metaData.getDatabaseProductName()) && connection.isWrapperFor(PGConnection.class);
+        }
+        return postgres;
+    }
+
+    private static int copyIn(Connection connection, List<User> users) throws SQLException {
+        try {
+            return (int) connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY, new StringReader(toCsv(users)));
+        } catch (IOException e) {
+            throw new SQLException("Error streaming users to COPY", e);
+        }
+    }
+
+    /**
+     * Inserts the users with one prepared statement, bound and batched once per user.
+     */
+    private static int batchInsert(Connection connection, List<User> users) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (User user : users) {
+                Object[] values = values(user);
+                for (int i = 0; i < values.length; i++)
+                    statement.setObject(i + 1, values[i]);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return users.size();
+    }
+
+    /**
+     * Renders the users as the CSV of {@code COPY}: {@code null} is an unquoted empty field and
+     * every other value is quoted.
+     */
+    private static String toCsv(List<User> users) {
+        StringBuilder csv = new StringBuilder(users.size() * 256);
+        for (User user : users) {
+            Object[] values = values(user);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0)
+                    csv.append(',');
+                if (values[i] != null)
+                    csv.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * @return The values of the user, in the order of {@link #COLUMNS}.
+     */
+    private static Object[] values(User user) {
+        Date birthDate = user.getBirthDate();
+        return new Object[]{
+                user.getId(),
+                user.getCreatedAt(),
+                user.getUpdatedAt(),
+                user.getVersion(),
+                user.getFirstname(),
+                user.getLastname(),
+                birthDate == null ? null : new java.sql.Date(birthDate.getTime()),
+                user.getCity(),
+                user.getCountry(),
+                user.getAvatar(),
+                user.getCompany(),
+                user.getJobPosition(),
+                user.getMobile(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getGender() == null ? null : user.getGender().name(),
+                user.getStatus() == null ? null : user.getStatus().name(),
+                user.getRole() == null ? null : user.getRole().name(),
+                user.isEnabled(),
+                user.isAccountNonLocked()
+        };
+    }
+}
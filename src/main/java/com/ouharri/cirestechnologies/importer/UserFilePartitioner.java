@@ -0,0 +1,92 @@
+package com.ouharri.cirestechnologies.importer;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link Partitioner} splitting a newline-delimited JSON file of users into byte ranges of about
+ * the same size, each starting at the beginning of a line, to be read by an
+ * {@link NdjsonUserItemReader} per partition.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public class UserFilePartitioner implements Partitioner {
+
+    /**
+     * Key of the offset of the first byte of a partition in its execution context.
+     */
+    public static final String START = "start";
+
+    /**
+     * Key of the offset following the last byte of a partition in its execution context.
+     */
+    public static final String END = "end";
+
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private final Path file;
+
+    public UserFilePartitioner(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Splits the file in up to {@code gridSize} ranges of whole lines.
+     * Ranges shorter than a line are merged into the next one, so small files get fewer partitions.
+     *
+     * @param gridSize The number of partitions wanted.
+     * @return The execution context of each partition, by partition name.
+     * @throws UncheckedIOException If the file cannot be read.
+     */
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+            long start = 0;
+            for (int i = 1; i <= gridSize && start < size; i++) {
+                long end = i == gridSize ? size : nextLine(channel, Math.max(start, size * i / gridSize));
+                if (end <= start)
+                    continue;
+
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START, start);
+                context.putLong(END, end);
+                partitions.put("partition" + partitions.size(), context);
+                start = end;
+            }
+            return partitions;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error partitioning " + file, e);
+        }
+    }
+
+    /**
+     * Finds the start of the first line beginning at or after the given offset.
+     */
+    private static long nextLine(FileChannel channel, long offset) throws IOException {
+        if (offset == 0)
+            return 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = offset - 1;
+        while (channel.read(buffer.clear(), position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position++;
+                if (buffer.get() == '\n')
+                    return position;
+            }
+        }
+        return channel.size();
+    }
+}
@@ -0,0 +1,369 @@
+package com.ouharri.cirestechnologies.importer;
+
+import com.ouharri.cirestechnologies.generator.UserStreamReader;
+import com.ouharri.cirestechnologies.mapper.UserMapper;
+import com.ouharri.cirestechnologies.model.dto.responses.ImportRecordResponse;
+import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDTO;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import com.ouharri.cirestechnologies.model.entities.User;
+import com.ouharri.cirestechnologies.model.enums.ImportStatus;
+import com.ouharri.cirestechnologies.repositories.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming import of uploaded user files.
+ * <p>
+ * The calling thread reads the file user by user through a {@link UserStreamReader}, which for
+ * JSON pulls tokens from Jackson's {@code JsonParser}, and cuts it into batches of
+ * {@code application.users.import.batch-size} users. Each batch then goes through the dedup,
+ * validation, hashing and insert stages on the {@code ioTaskExecutor}. At most
+ * {@code application.users.import.max-in-flight} batches are processed at once: the reader blocks
+ * until one completes, so peak memory is bounded by the batch size and not by the file size.
+ * </p>
+ * <p>
+ * Passwords are hashed by the {@link PasswordHasher} on its own CPU-bound pool, so while a batch
+ * waits for its hashes the reader keeps parsing and other batches keep inserting.
+ * </p>
+ * <p>
+ * Every record gets an {@link ImportRecordResponse outcome}. Users are inserted in chunks of
+ * {@code application.users.import.commit-interval}, each chunk in its own transaction, so a
+ * committed chunk stays committed whatever happens to the others. As batches run in parallel,
+ * so do their chunks, each on its own connection. No persistence context is involved: the
+ * {@link UserBulkInserter} writes with JDBC, so memory stays flat whatever the file size. A chunk
+ * whose transaction fails is:
+ * </p>
+ * <ul>
+ *     <li>retried up to {@code application.users.import.retry-limit} times, with a growing delay,
+ *     on a transient failure such as a deadlock or a lock timeout, then skipped;</li>
+ *     <li>split in halves, each committed on its own, on a constraint violation, down to the
+ *     offending records, which are skipped, so a clash rejects that record only;</li>
+ *     <li>skipped on any other database failure.</li>
+ * </ul>
+ * <p>
+ * Skipped records get a {@code DUPLICATE_*} or {@code DATABASE_ERROR} outcome; the import goes on.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Slf4j
+@Component
+public class UserImportPipeline {
+
+    private final UserRepository repository;
+    private final UserMapper mapper;
+    private final Validator validator;
+    private final PasswordHasher hasher;
+    private final UserBulkInserter inserter;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final int batchSize;
+    private final int commitInterval;
+    private final int maxInFlight;
+    private final int retryLimit;
+
+    public UserImportPipeline(
+            UserRepository repository,
+            UserMapper mapper,
+            Validator validator,
+            PasswordHasher hasher,
+            UserBulkInserter inserter,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("ioTaskExecutor") Executor executor,
+            @Value("${application.users.import.batch-size:100}") int batchSize,
+            @Value("${application.users.import.commit-interval:100}") int commitInterval,
+            @Value("${application.users.import.max-in-flight:4}") int maxInFlight,
+            @Value("${application.users.import.retry-limit:3}") int retryLimit
+    ) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.hasher = hasher;
+        this.inserter = inserter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.batchSize = Math.max(1, batchSize);
+        this.commitInterval = Math.max(1, commitInterval);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.retryLimit = Math.max(0, retryLimit);
+    }
+
+    /**
+     * Imports every user of the given reader.
+     *
+     * @param reader The reader of the uploaded file.
+     * @return The summary of the import.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public UploadSummaryResponseDTO importUsers(UserStreamReader reader) throws IOException {
+        return importUsers(reader, outcome -> {
+        });
+    }
+
+    /**
+     * Imports every user of the given reader, reporting its progress and the outcome of each
+     * record as soon as they are known.
+     *
+     * @param reader   The reader of the uploaded file.
+     * @param listener The listener of the progress of the import.
+     * @return The summary of the import.
+     * @throws IOException      If the file cannot be read or is malformed.
+     * @throws RuntimeException If a batch fails for another reason than a rejected record.
+     */
+    public UploadSummaryResponseDTO importUsers(UserStreamReader reader, ImportListener listener) throws IOException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicInteger imported = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        int totalRecords = 0;
+
+        try {
+            List<Row> batch = new ArrayList<>(batchSize);
+            for (UserResponses user = reader.read(); user != null && failure.get() == null; user = reader.read()) {
+                batch.add(new Row(++totalRecords, user));
+                if (batch.size() == batchSize) {
+                    listener.parsed(batch.size());
+                    submit(batch, listener, inFlight, imported, failure);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                listener.parsed(batch.size());
+                submit(batch, listener, inFlight, imported, failure);
+            }
+        } finally {
+            inFlight.acquireUninterruptibly(maxInFlight);
+        }
+
+        if (failure.get() != null)
+            throw failure.get();
+
+        return UploadSummaryResponseDTO.builder()
+                .totalRecords(totalRecords)
+                .successfullyImported(imported.get())
+                .failedToImport(totalRecords - imported.get())
+                .build();
+    }
+
+    private void submit(
+            List<Row> batch,
+            ImportListener listener,
+            Semaphore inFlight,
+            AtomicInteger imported,
+            AtomicReference<RuntimeException> failure
+    ) {
+        inFlight.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    imported.addAndGet(process(batch, listener));
+                } catch (RuntimeException e) {
+                    log.error("Error importing a batch of users", e);
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Dedup, validation, hashing and insert stages of a batch.
+     *
+     * @return The number of users inserted.
+     */
+    private int process(List<Row> batch, ImportListener listener) {
+        Set<String> emailsToImport = new HashSet<>();
+        Set<String> usernamesToImport = new HashSet<>();
+        List<Row> unique = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            if (!emailsToImport.add(row.response.getEmail()))
+                listener.outcome(row.outcome(ImportStatus.DUPLICATE_EMAIL, "E-mail repeated in the file"));
+            else if (!usernamesToImport.add(row.response.getUsername()))
+                listener.outcome(row.outcome(ImportStatus.DUPLICATE_USERNAME, "Username repeated in the file"));
+            else
+                unique.add(row);
+        }
+
+        Set<String> existingEmails = new HashSet<>();
+        Set<String> existingUsernames = new HashSet<>();
+        for (UserRepository.UserIdentifiers existing : repository.findIdentifiers(emailsToImport, usernamesToImport)) {
+            existingEmails.add(existing.getEmail());
+            existingUsernames.add(existing.getUsername());
+        }
+
+        List<Row> rowsToSave = new ArrayList<>(unique.size());
+        for (Row row : unique) {
+            if (existingEmails.contains(row.response.getEmail())) {
+                listener.outcome(row.outcome(ImportStatus.DUPLICATE_EMAIL, "E-mail already taken"));
+                continue;
+            }
+            if (existingUsernames.contains(row.response.getUsername())) {
+                listener.outcome(row.outcome(ImportStatus.DUPLICATE_USERNAME, "Username already taken"));
+                continue;
+            }
+
+            row.user = mapper.toEntityFromResponse(row.response);
+            row.user.setEnabled(true);
+            row.user.setAccountNonLocked(true);
+
+            Set<ConstraintViolation<User>> violations = PasswordHasher.validateUnhashed(validator, row.user);
+            if (!violations.isEmpty()) {
+                listener.outcome(row.outcome(ImportStatus.VALIDATION_ERROR, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "))));
+                continue;
+            }
+            rowsToSave.add(row);
+        }
+
+        try {
+            hasher.hash(rowsToSave.stream().map(row -> row.user).toList()).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        listener.hashed(rowsToSave.size());
+
+        return insert(rowsToSave, listener);
+    }
+
+    /**
+     * Inserts the given rows, chunk by chunk.
+     *
+     * @return The number of users inserted.
+     */
+    private int insert(List<Row> rows, ImportListener listener) {
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += commitInterval)
+            inserted += commit(rows.subList(from, Math.min(rows.size(), from + commitInterval)), listener);
+        return inserted;
+    }
+
+    /**
+     * Inserts a chunk in its own transaction, retrying, splitting or skipping it if it fails.
+     *
+     * @return The number of users inserted.
+     */
+    private int commit(List<Row> rows, ImportListener listener) {
+        if (rows.isEmpty())
+            return 0;
+
+        List<User> users = rows.stream().map(row -> row.user).toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> inserter.insert(users));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (rows.size() > 1) {
+                    int half = rows.size() / 2;
+                    return commit(rows.subList(0, half), listener) + commit(rows.subList(half, rows.size()), listener);
+                }
+                listener.outcome(rejected(rows.get(0), e));
+                return 0;
+            } catch (TransientDataAccessException e) {
+                if (attempt > retryLimit || !backOff(attempt)) {
+                    log.error("Error inserting a chunk of users after {} attempts", attempt, e);
+                    return skip(rows, e, listener);
+                }
+                log.warn("Retrying a chunk of users after a transient failure: {}", e.getMessage());
+            } catch (DataAccessException e) {
+                log.error("Error inserting a chunk of users", e);
+                return skip(rows, e, listener);
+            }
+        }
+
+        rows.forEach(row -> listener.outcome(row.outcome(ImportStatus.IMPORTED, null)));
+        return rows.size();
+    }
+
+    /**
+     * Waits before the next attempt, longer after each one.
+     *
+     * @return {@code false} if interrupted.
+     */
+    private static boolean backOff(int attempt) {
+        try {
+            Thread.sleep(50L << Math.min(attempt, 6));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static int skip(List<Row> rows, DataAccessException e, ImportListener listener) {
+        String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        rows.forEach(row -> listener.outcome(row.outcome(ImportStatus.DATABASE_ERROR, reason)));
+        return 0;
+    }
+
+    /**
+     * Tells which identifier of a single rejected row clashed, when it is a duplicate inserted
+     * meanwhile by another batch or another import.
+     */
+    private ImportRecordResponse rejected(Row row, DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            for (UserRepository.UserIdentifiers existing : repository.findIdentifiers(Collections.singleton(row.response.getEmail()), Collections.singleton(row.response.getUsername()))) {
+                if (Objects.equals(row.response.getEmail(), existing.getEmail()))
+                    return row.outcome(ImportStatus.DUPLICATE_EMAIL, "E-mail already taken");
+                return row.outcome(ImportStatus.DUPLICATE_USERNAME, "Username already taken");
+            }
+        }
+        return row.outcome(ImportStatus.DATABASE_ERROR, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+    }
+
+    /**
+     * A record of the file, with its position and, once mapped, its entity.
+     */
+    private static final class Row {
+
+        private final long record;
+        private final UserResponses response;
+        private User user;
+
+        private Row(long record, UserResponses response) {
+            this.record = record;
+            this.response = response;
+        }
+
+        private ImportRecordResponse outcome(ImportStatus status, String reason) {
+            return ImportRecordResponse.builder()
+                    .record(record)
+                    .email(response.getEmail())
+                    .username(response.getUsername())
+                    .status(status)
+                    .reason(reason)
+                    .build();
+        }
+    }
+}
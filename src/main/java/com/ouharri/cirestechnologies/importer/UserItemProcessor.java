@@ -0,0 +1,51 @@
+package com.ouharri.cirestechnologies.importer;
+
+import com.ouharri.cirestechnologies.mapper.UserMapper;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import com.ouharri.cirestechnologies.model.entities.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link ItemProcessor} of the Spring Batch user import, mapping each record to a {@link User},
+ * validating it as the REST import does, then hashing its password with the {@link PasswordHasher},
+ * on its CPU-bound pool. A user failing validation raises a {@link ConstraintViolationException},
+ * which skips it.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserItemProcessor implements ItemProcessor<UserResponses, User> {
+
+    private final UserMapper mapper;
+    private final Validator validator;
+    private final PasswordHasher hasher;
+
+    @Override
+    public User process(@NotNull UserResponses item) {
+        User user = mapper.toEntityFromResponse(item);
+        user.setEnabled(true);
+        user.setAccountNonLocked(true);
+
+        Set<ConstraintViolation<User>> violations = PasswordHasher.validateUnhashed(validator, user);
+        if (!violations.isEmpty())
+            throw new ConstraintViolationException("Invalid user " + item.getEmail(), violations);
+
+        try {
+            hasher.hash(List.of(user)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return user;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ouharri.cirestechnologies.model.dto.requests;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Request to generate users asynchronously into a downloadable file.
+ *
+ * @param count  The number of users to generate.
+ * @param format The output format, {@code json} by default, optionally compressed, e.g. {@code ndjson.zst}.
+ * @param seed   The optional seed of the generation; a random one is drawn when absent.
+ * @param level  The optional compression level.
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public record GenerationJobRequest(
+        @NotNull(message = "Count is required")
+        @Positive(message = "Count must be positive")
+        Integer count,
+
+        String format,
+
+        Long seed,
+
+        Integer level
+
+) implements _Request {
+}
@@ -0,0 +1,80 @@
+package com.ouharri.cirestechnologies.model.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+import org.springframework.batch.core.BatchStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO (Data Transfer Object) representing the state of an execution of the Spring Batch user
+ * import job.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+@Setter
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchImportResponse {
+    /**
+     * The identifier of the job execution.
+     */
+    private Long id;
+
+    /**
+     * The identifier of the job instance, shared by the executions restarting it.
+     */
+    private Long instanceId;
+
+    /**
+     * The name of the imported file.
+     */
+    private String fileName;
+
+    /**
+     * The current status of the execution.
+     */
+    private BatchStatus status;
+
+    /**
+     * The number of partitions the file was split into.
+     */
+    private int partitions;
+
+    /**
+     * The number of records read from the file so far.
+     */
+    private long read;
+
+    /**
+     * The number of users written so far.
+     */
+    private long written;
+
+    /**
+     * The number of records skipped so far.
+     */
+    private long skipped;
+
+    /**
+     * When the execution started.
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * When the execution ended.
+     */
+    private LocalDateTime endedAt;
+
+    /**
+     * Why the execution failed, if it did.
+     */
+    private String error;
+}
@@ -0,0 +1,75 @@
+package com.ouharri.cirestechnologies.model.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.ouharri.cirestechnologies.model.enums.GenerationJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO (Data Transfer Object) representing the state of an asynchronous user generation job.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+@Setter
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GenerationJobResponse {
+    /**
+     * The identifier of the job.
+     */
+    private UUID id;
+
+    /**
+     * The current status of the job.
+     */
+    private GenerationJobStatus status;
+
+    /**
+     * The number of users requested.
+     */
+    private int count;
+
+    /**
+     * The number of users generated and spooled so far.
+     */
+    private long generated;
+
+    /**
+     * The seed of the generation, to reproduce the file.
+     */
+    private long seed;
+
+    /**
+     * The name of the file to download.
+     */
+    private String fileName;
+
+    /**
+     * The size of the file in bytes, once completed.
+     */
+    private Long size;
+
+    /**
+     * When the job was submitted.
+     */
+    private Instant createdAt;
+
+    /**
+     * When the job completed or failed.
+     */
+    private Instant finishedAt;
+
+    /**
+     * Why the job failed, if it did.
+     */
+    private String error;
+}
@@ -0,0 +1,90 @@
+package com.ouharri.cirestechnologies.model.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.ouharri.cirestechnologies.model.enums.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO (Data Transfer Object) representing the state of an asynchronous user import job.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+@Setter
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportJobResponse {
+    /**
+     * The identifier of the job.
+     */
+    private UUID id;
+
+    /**
+     * The current status of the job.
+     */
+    private ImportJobStatus status;
+
+    /**
+     * The name of the uploaded file.
+     */
+    private String fileName;
+
+    /**
+     * The number of records read from the file so far.
+     */
+    private long parsed;
+
+    /**
+     * The number of passwords hashed so far.
+     */
+    private long hashed;
+
+    /**
+     * The number of users inserted so far.
+     */
+    private long inserted;
+
+    /**
+     * The number of records rejected so far.
+     */
+    private long rejected;
+
+    /**
+     * The records imported or rejected per second since the job started.
+     */
+    private double throughput;
+
+    /**
+     * When the job was submitted.
+     */
+    private Instant createdAt;
+
+    /**
+     * When the import started.
+     */
+    private Instant startedAt;
+
+    /**
+     * When the job completed or failed.
+     */
+    private Instant finishedAt;
+
+    /**
+     * Why the job failed, if it did.
+     */
+    private String error;
+
+    /**
+     * True if the file was already imported, the counters being those of its first import.
+     */
+    private boolean replayed;
+}
@@ -0,0 +1,49 @@
+package com.ouharri.cirestechnologies.model.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ouharri.cirestechnologies.model.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * DTO (Data Transfer Object) representing the outcome of the import of a single user record.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+@Setter
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportRecordResponse {
+    /**
+     * The position of the record in the file, starting at 1.
+     */
+    private long record;
+
+    /**
+     * The e-mail of the record.
+     */
+    private String email;
+
+    /**
+     * The username of the record.
+     */
+    private String username;
+
+    /**
+     * The outcome of the import.
+     */
+    private ImportStatus status;
+
+    /**
+     * Why the record was not imported, absent if it was.
+     */
+    private String reason;
+}
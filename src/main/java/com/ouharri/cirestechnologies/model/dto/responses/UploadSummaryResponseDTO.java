@@ -33,4 +33,9 @@ public class UploadSummaryResponseDTO {
      * The number of records that failed to be imported into the database.
      */
     private int failedToImport;
+
+    /**
+     * True if the content was already imported, this being the summary of its first import.
+     */
+    private boolean replayed;
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.ouharri.cirestechnologies.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Receipt of an imported user file, identified by the SHA-256 digest of its content, so that a
+ * repeated upload of the same file replays the summary of its first import. A receipt is inserted
+ * pending when its import starts, claiming the content, and completed with the summary.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+@Setter
+@Entity
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "_import_receipt")
+public class ImportReceipt extends AuditableEntity {
+
+    /**
+     * The hexadecimal SHA-256 digest of the imported content.
+     */
+    @Id
+    @Column(length = 64)
+    private String digest;
+
+    /**
+     * Whether the import is over; a pending receipt claims the content for the import running.
+     */
+    private boolean completed;
+
+    /**
+     * The total number of records in the file.
+     */
+    private int totalRecords;
+
+    /**
+     * The number of records imported into the database.
+     */
+    private int successfullyImported;
+
+    /**
+     * The number of records that failed to be imported.
+     */
+    private int failedToImport;
+}
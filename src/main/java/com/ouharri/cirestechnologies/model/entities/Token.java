@@ -4,10 +4,15 @@ import com.ouharri.cirestechnologies.model.enums.TokenType;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.UUID;
 
 /**
  * Represents a token entity used for authentication and authorization.
+ * <p>
+ * Tokens are revoked per user in bulk, through the {@code (user_id, revoked, expired)} index,
+ * and purged once expired, through the {@code expires_at} index.
+ * </p>
  *
  * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
  * @version 2.0
@@ -16,15 +21,26 @@ import java.util.UUID;
 @Setter
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_token_user_revoked_expired", columnList = "user_id, revoked, expired"),
+        @Index(name = "idx_token_expires_at", columnList = "expires_at")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Token extends AbstractEntity<UUID> {
 
     /**
-     * The token string, unique within the system.
+     * The identifier of the token, its {@code jti} claim, unique within the system.
+     * Tokens are looked up by this short key rather than by the full JWT, which is not stored.
      */
-    @Column(unique = true, length = 1000)
-    public String token;
+    @Column(unique = true, nullable = false, length = 36)
+    public String jti;
+
+    /**
+     * When the token expires, its {@code exp} claim.
+     */
+    @Column(nullable = false)
+    public Instant expiresAt;
 
     /**
      * The type of the token, e.g., Bearer.
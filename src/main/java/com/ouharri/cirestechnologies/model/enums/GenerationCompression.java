@@ -0,0 +1,135 @@
+package com.ouharri.cirestechnologies.model.enums;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.ouharri.cirestechnologies.exceptions.ResourceNotFoundException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressions supported by the user generation endpoint.
+ * <p>
+ * Compressed streams are flushed along with the generator, chunk by chunk, so compression does
+ * not hold back the streaming of the users.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum GenerationCompression {
+
+    /**
+     * No compression.
+     */
+    NONE(null, null, "", 0, 0, 0),
+
+    /**
+     * Gzip, levels 1 to 9.
+     */
+    GZIP("gzip", "application/gzip", ".gz", 1, 9, 6),
+
+    /**
+     * Zstandard, levels 1 to 19.
+     */
+    ZSTD("zstd", "application/zstd", ".zst", 1, 19, 3);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String encoding;
+    private final String mediaType;
+    private final String suffix;
+    private final int minLevel;
+    private final int maxLevel;
+    private final int defaultLevel;
+
+    /**
+     * Resolves the compression requested by the suffix of a format parameter value,
+     * e.g. {@code gz} for {@code json.gz}.
+     *
+     * @param format The requested format.
+     * @return The matching compression, {@link #NONE} if the format has no compression suffix.
+     */
+    public static GenerationCompression fromFormat(String format) {
+        String value = format.toLowerCase(Locale.ROOT);
+        for (GenerationCompression compression : values())
+            if (compression != NONE && value.endsWith(compression.suffix))
+                return compression;
+        return NONE;
+    }
+
+    /**
+     * Picks the preferred compression accepted by an {@code Accept-Encoding} header, zstd first.
+     * Codings with a zero quality value are ignored.
+     *
+     * @param acceptEncoding The header value, possibly {@code null}.
+     * @return The negotiated compression, {@link #NONE} if none is accepted.
+     */
+    public static GenerationCompression negotiate(String acceptEncoding) {
+        if (acceptEncoding == null)
+            return NONE;
+
+        GenerationCompression negotiated = NONE;
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"))
+                continue;
+            if (name.equals(ZSTD.encoding))
+                return ZSTD;
+            if (name.equals(GZIP.encoding))
+                negotiated = GZIP;
+        }
+        return negotiated;
+    }
+
+    /**
+     * Strips the compression suffix off a format parameter value.
+     *
+     * @param format The requested format, e.g. {@code json.gz}.
+     * @return The format without its compression suffix, e.g. {@code json}.
+     */
+    public String stripSuffix(String format) {
+        return format.substring(0, format.length() - suffix.length());
+    }
+
+    /**
+     * Validates a requested compression level.
+     *
+     * @param level The requested level, {@code null} for the default one.
+     * @return The level to use.
+     * @throws ResourceNotFoundException If the level is out of the range of this compression.
+     */
+    public int level(Integer level) {
+        if (level == null || this == NONE)
+            return defaultLevel;
+        if (level < minLevel || level > maxLevel)
+            throw new ResourceNotFoundException("Invalid level value. Please provide a " + name().toLowerCase(Locale.ROOT) + " level between " + minLevel + " and " + maxLevel + ".");
+        return level;
+    }
+
+    /**
+     * Wraps a stream so that what is written to it is compressed.
+     * Flushing the returned stream flushes the compressed data written so far.
+     *
+     * @param out   The stream to write the compressed data to.
+     * @param level The compression level, as returned by {@link #level(Integer)}.
+     * @return The compressing stream; closing it finishes the compressed data and closes {@code out}.
+     * @throws IOException If the compressed stream header cannot be written.
+     */
+    public OutputStream wrap(OutputStream out, int level) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE, true) {
+                {
+                    def.setLevel(level);
+                }
+            };
+            case ZSTD -> new ZstdOutputStream(out, level);
+        };
+    }
+}
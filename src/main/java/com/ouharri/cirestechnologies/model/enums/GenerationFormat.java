@@ -0,0 +1,78 @@
+package com.ouharri.cirestechnologies.model.enums;
+
+import com.ouharri.cirestechnologies.exceptions.ResourceNotFoundException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Output formats supported by the user generation endpoint.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum GenerationFormat {
+
+    /**
+     * A single JSON array holding every generated user.
+     */
+    JSON("application/json", "json"),
+
+    /**
+     * Newline-delimited JSON, one user object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * RFC 4180 comma-separated values with a header line, one user per line.
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * Compact schema-based binary rows, with dictionary-encoded city, country, company,
+     * role and gender.
+     */
+    BINARY("application/x-users-binary", "bin");
+
+    private final String mediaType;
+    private final String extension;
+
+    /**
+     * Resolves a format from its request parameter value (case-insensitive).
+     *
+     * @param value The requested format, e.g. {@code json} or {@code ndjson}.
+     * @return The matching format.
+     * @throws ResourceNotFoundException If the value does not name a supported format.
+     */
+    public static GenerationFormat fromParameter(String value) {
+        for (GenerationFormat format : values())
+            if (format.extension.equals(value.toLowerCase(Locale.ROOT)))
+                return format;
+        throw new ResourceNotFoundException("Invalid format value. Supported formats are json, ndjson, csv and bin.");
+    }
+
+    /**
+     * Resolves the format of an uploaded file from its content type, or from the extension of
+     * its name when the content type is missing or generic.
+     *
+     * @param contentType The content type of the file, possibly {@code null}.
+     * @param fileName    The original name of the file, possibly {@code null}.
+     * @return The matching format.
+     * @throws ResourceNotFoundException If neither names a supported format.
+     */
+    public static GenerationFormat fromUpload(String contentType, String fileName) {
+        if (contentType != null)
+            for (GenerationFormat format : values())
+                if (contentType.toLowerCase(Locale.ROOT).startsWith(format.mediaType))
+                    return format;
+
+        if (fileName != null && fileName.lastIndexOf('.') >= 0)
+            for (GenerationFormat format : values())
+                if (format.extension.equals(fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT)))
+                    return format;
+
+        throw new ResourceNotFoundException("Invalid file format. Please provide a JSON, NDJSON, CSV or binary users file.");
+    }
+}
@@ -0,0 +1,29 @@
+package com.ouharri.cirestechnologies.model.enums;
+
+/**
+ * Lifecycle of an asynchronous user generation job.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public enum GenerationJobStatus {
+
+    /**
+     * Waiting for a free generation slot.
+     */
+    PENDING,
+
+    /**
+     * Users are being generated and spooled to disk.
+     */
+    RUNNING,
+
+    /**
+     * The file is complete and can be downloaded.
+     */
+    COMPLETED,
+
+    /**
+     * The generation failed; the partial file was deleted.
+     */
+    FAILED
+}
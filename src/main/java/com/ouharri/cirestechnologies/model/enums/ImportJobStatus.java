@@ -0,0 +1,29 @@
+package com.ouharri.cirestechnologies.model.enums;
+
+/**
+ * Lifecycle of an asynchronous user import job.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public enum ImportJobStatus {
+
+    /**
+     * The file is spooled and waits for a free import slot.
+     */
+    PENDING,
+
+    /**
+     * Users are being read, hashed and inserted.
+     */
+    RUNNING,
+
+    /**
+     * Every record of the file has an outcome.
+     */
+    COMPLETED,
+
+    /**
+     * The import stopped early; the users inserted so far are kept.
+     */
+    FAILED
+}
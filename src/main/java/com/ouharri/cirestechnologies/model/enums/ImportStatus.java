@@ -0,0 +1,34 @@
+package com.ouharri.cirestechnologies.model.enums;
+
+/**
+ * Outcome of the import of a single user record.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public enum ImportStatus {
+
+    /**
+     * The user was inserted.
+     */
+    IMPORTED,
+
+    /**
+     * The e-mail already belongs to a user, or appears earlier in the file.
+     */
+    DUPLICATE_EMAIL,
+
+    /**
+     * The username already belongs to a user, or appears earlier in the file.
+     */
+    DUPLICATE_USERNAME,
+
+    /**
+     * The record breaks a constraint of the user entity.
+     */
+    VALIDATION_ERROR,
+
+    /**
+     * The database rejected the record for another reason.
+     */
+    DATABASE_ERROR
+}
@@ -0,0 +1,61 @@
+package com.ouharri.cirestechnologies.repositories;
+
+import com.ouharri.cirestechnologies.model.entities.ImportReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+/**
+ * Repository interface for accessing and managing {@link ImportReceipt} entities in the database,
+ * keyed by the digest of the imported content.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Repository
+public interface ImportReceiptRepository extends JpaRepository<ImportReceipt, String> {
+
+    /**
+     * Completes the pending receipt of a content with the summary of its import.
+     *
+     * @param digest               The digest of the content.
+     * @param totalRecords         The total number of records in the file.
+     * @param successfullyImported The number of records imported.
+     * @param failedToImport       The number of records that failed to be imported.
+     * @return The number of receipts completed.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ImportReceipt r
+            SET r.completed = true, r.totalRecords = :totalRecords, r.successfullyImported = :successfullyImported, r.failedToImport = :failedToImport
+            WHERE r.digest = :digest
+            """)
+    int complete(String digest, int totalRecords, int successfullyImported, int failedToImport);
+
+    /**
+     * Deletes the pending receipt of a content, if any.
+     *
+     * @param digest The digest of the content.
+     * @return The number of receipts deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ImportReceipt r WHERE r.digest = :digest AND r.completed = false")
+    int deletePending(String digest);
+
+    /**
+     * Deletes the pending receipt of a content if it was inserted before the given instant.
+     *
+     * @param digest The digest of the content.
+     * @param before The instant before which the receipt is abandoned.
+     * @return The number of receipts deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ImportReceipt r WHERE r.digest = :digest AND r.completed = false AND r.createdAt < :before")
+    int deletePendingCreatedBefore(String digest, Timestamp before);
+}
@@ -2,9 +2,12 @@ package com.ouharri.cirestechnologies.repositories;
 
 import com.ouharri.cirestechnologies.model.entities.Token;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,23 +19,56 @@ import java.util.UUID;
 public interface TokenRepository extends JpaRepository<Token, Integer> {
 
     /**
-     * Finds all valid tokens associated with a user based on the user's ID.
+     * Finds all valid tokens associated with a user based on the user's ID: neither revoked,
+     * nor expired at the given instant.
      *
-     * @param id The ID of the user.
+     * @param id      The ID of the user.
+     * @param instant The instant at which the tokens are valid.
      * @return A list of valid tokens associated with the user.
      */
     @Query(value = """
-            SELECT t FROM Token t INNER JOIN User u
-            ON t.user.id = u.id
-            WHERE u.id = :id AND (t.expired = false OR t.revoked = false)
+            SELECT t FROM Token t
+            WHERE t.user.id = :id AND t.revoked = false AND t.expired = false AND t.expiresAt > :instant
             """)
-    List<Token> findAllValidTokenByUser(UUID id);
+    List<Token> findAllValidTokenByUser(UUID id, Instant instant);
 
     /**
-     * Finds a token by its token string.
+     * Marks the given tokens that are neither revoked nor expired as both, in a single update.
+     * The persistence context is flushed before and cleared after, so no stale token survives it.
      *
-     * @param token The token string.
+     * @param ids The IDs of the tokens.
+     * @return The number of tokens revoked.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE Token t SET t.revoked = true, t.expired = true
+            WHERE t.id IN :ids AND t.revoked = false AND t.expired = false
+            """)
+    int revokeAll(Collection<UUID> ids);
+
+    /**
+     * Deletes the tokens expiring before the given instant, in a single delete.
+     *
+     * @param instant The instant before which the tokens expire.
+     * @return The number of tokens deleted.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM Token t WHERE t.expiresAt < :instant")
+    int deleteAllByExpiresAtBefore(Instant instant);
+
+    /**
+     * Finds a token by its identifier.
+     *
+     * @param jti The {@code jti} claim of the token.
      * @return An optional containing the token, or empty if not found.
      */
-    Optional<Token> findByToken(String token);
+    Optional<Token> findByJti(String jti);
+
+    /**
+     * Finds the revoked tokens expiring after the given instant.
+     *
+     * @param instant The instant after which the tokens expire.
+     * @return A list of the revoked tokens still alive at that instant.
+     */
+    List<Token> findAllByRevokedTrueAndExpiresAtAfter(Instant instant);
 }
\ No newline at end of file
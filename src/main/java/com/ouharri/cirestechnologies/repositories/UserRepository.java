@@ -9,12 +9,14 @@ import jakarta.validation.constraints.Size;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing and managing {@link User} entities in the database.
@@ -78,8 +80,43 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     boolean existsByEmailOrUsername(@Email(message = "Email was not provided") @Size(max = 80, message = "Email is too long") String email, String username);
 
-    Collection<User> findAllByEmailIn(Set<String> emailsToImport);
+    /**
+     * Streams the usernames of all users, without loading the users themselves.
+     * Must be consumed within a transaction and closed afterwards.
+     *
+     * @return A stream of usernames.
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IS NOT NULL")
+    Stream<String> streamAllUsernames();
+
+    /**
+     * Streams the e-mails of all users, without loading the users themselves.
+     * Must be consumed within a transaction and closed afterwards.
+     *
+     * @return A stream of e-mails.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IS NOT NULL")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Returns the e-mail and username of the users owning one of the given e-mails or usernames,
+     * in a single query projecting only these two columns, without loading the users nor their
+     * tokens. The unique indexes on both columns serve the lookup.
+     *
+     * @param emails    The e-mails to look up.
+     * @param usernames The usernames to look up.
+     * @return The identifiers of the clashing users.
+     */
+    @Query("SELECT u.email AS email, u.username AS username FROM User u WHERE u.email IN :emails OR u.username IN :usernames")
+    List<UserIdentifiers> findIdentifiers(Collection<String> emails, Collection<String> usernames);
+
+    /**
+     * Projection of the unique identifiers of a user.
+     */
+    interface UserIdentifiers {
 
-    Collection<User> findAllByUsernameIn(Set<String> usernamesToImport);
+        String getEmail();
 
+        String getUsername();
+    }
 }
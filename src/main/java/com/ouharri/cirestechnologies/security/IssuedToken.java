@@ -0,0 +1,15 @@
+package com.ouharri.cirestechnologies.security;
+
+import java.time.Instant;
+
+/**
+ * A JWT just signed, along with the claims it is stored by, so that storing it does not parse
+ * nor verify it back.
+ *
+ * @param token     The signed JWT.
+ * @param jti       The {@code jti} claim of the token.
+ * @param expiresAt When the token expires.
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public record IssuedToken(String token, String jti, Instant expiresAt) {
+}
@@ -9,8 +9,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,6 +17,12 @@ import java.io.IOException;
 
 /**
  * Custom JWT authentication filter to process and validate JWT tokens in the incoming requests.
+ * <p>
+ * Requests are authenticated from the access token alone: its signature is verified once per
+ * node, revocations are checked in memory and the principal is a {@link TokenUserDetails} rebuilt
+ * from its claims, so no request reaches the database to be authenticated. The roles of a token
+ * are those of its user when it was issued: changing the role of a user revokes its tokens.
+ * </p>
  *
  * @author <a href="mailto:ouharri.outman@gmail.com">Outman Ouharri</a>
  */
@@ -27,7 +31,6 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService service;
-    private final UserDetailsService userDetailsService;
 
     /**
      * Filters incoming requests to check for a valid JWT token and authenticate the user if necessary.
@@ -51,7 +54,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final VerifiedToken verified;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -59,12 +62,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = service.extractUsername(jwt);
+        verified = service.verify(jwt);
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (verified.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            TokenUserDetails userDetails = TokenUserDetails.from(verified);
 
-            if (service.isTokenValid(jwt, userDetails)) {
+            if (verified.isAccessToken() && service.isTokenValid(verified)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -0,0 +1,100 @@
+package com.ouharri.cirestechnologies.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HMAC keys of the application JWTs, decoded once, and the parser verifying them, built once.
+ * The parser is immutable, so it is shared by every thread.
+ * <p>
+ * Tokens are signed with the current key and carry its identifier in their {@code kid} header.
+ * Keys being rotated out remain accepted for verification under their own identifier, so the
+ * tokens they signed stay valid until they expire. Tokens without a {@code kid}, issued before
+ * key identifiers were introduced, are verified with the current key.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public final class JwtKeyRing {
+
+    private final String keyId;
+    private final Key signingKey;
+    private final Map<String, Key> keys = new HashMap<>();
+    private final JwtParser parser;
+
+    /**
+     * Decodes the keys and builds the parser.
+     *
+     * @param keyId        The identifier of the current key.
+     * @param secretKey    The current key, Base64-encoded.
+     * @param previousKeys The keys still accepted for verification, as comma-separated
+     *                     {@code kid:key} pairs with Base64-encoded keys, possibly empty.
+     * @throws IllegalArgumentException If a key is malformed or too short, or an identifier is repeated.
+     */
+    public JwtKeyRing(String keyId, String secretKey, String previousKeys) {
+        this.keyId = keyId;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.keys.put(keyId, signingKey);
+
+        if (previousKeys != null && !previousKeys.isBlank())
+            for (String entry : previousKeys.split(",")) {
+                String[] pair = entry.trim().split(":", 2);
+                if (pair.length != 2 || keys.putIfAbsent(pair[0], Keys.hmacShaKeyFor(Decoders.BASE64.decode(pair[1]))) != null)
+                    throw new IllegalArgumentException("Invalid or repeated JWT key " + pair[0]);
+            }
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolve(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Signs a token with the current key.
+     *
+     * @param builder The builder of the token.
+     * @return The same builder, with the {@code kid} header and the signing key set.
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        return builder
+                .setHeaderParam(JwsHeader.KEY_ID, keyId)
+                .signWith(signingKey, SignatureAlgorithm.HS256);
+    }
+
+    /**
+     * Verifies a token with the key named by its {@code kid} header and parses its claims.
+     *
+     * @param token The token to verify.
+     * @return The claims of the token.
+     * @throws io.jsonwebtoken.JwtException If the token is malformed, expired, wrongly signed, or
+     *                                      signed with an unknown key.
+     */
+    public Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private Key resolve(String kid) {
+        if (kid == null)
+            return signingKey;
+        Key key = keys.get(kid);
+        if (key == null)
+            throw new SignatureException("Unknown JWT key " + kid);
+        return key;
+    }
+}
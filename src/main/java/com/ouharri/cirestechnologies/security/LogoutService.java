@@ -1,9 +1,11 @@
 package com.ouharri.cirestechnologies.security;
 
 import com.ouharri.cirestechnologies.exceptions.NoAuthenticateUser;
+import com.ouharri.cirestechnologies.exceptions.RevocationNotPublishedException;
 import com.ouharri.cirestechnologies.repositories.TokenRepository;
 import com.ouharri.cirestechnologies.services.spec.JwtService;
 import com.ouharri.cirestechnologies.services.spec.UserService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -27,13 +29,18 @@ public class LogoutService implements LogoutHandler {
     private final TokenRepository tokenRepository;
 
     /**
-     * Handles user logout by revoking the JWT token.
+     * Handles user logout by revoking every token of the user, its refresh token included.
+     * <p>
+     * The revocation is committed even when it could not be published to the other nodes, but
+     * the logout then fails with a {@link RevocationNotPublishedException}, as those nodes keep
+     * accepting the tokens until they restart or the tokens expire.
+     * </p>
      *
      * @param request        HttpServletRequest
      * @param response       HttpServletResponse
      * @param authentication Authentication object representing the current user's authentication details
      */
-    @Transactional
+    @Transactional(noRollbackFor = RevocationNotPublishedException.class)
     public void logout(
             HttpServletRequest request,
             HttpServletResponse response,
@@ -46,15 +53,23 @@ public class LogoutService implements LogoutHandler {
             throw new NoAuthenticateUser("Token not found");
 
         jwt = authHeader.substring(7);
-        var storedToken = tokenRepository.findByToken(jwt)
+        VerifiedToken verified;
+        try {
+            verified = jwtService.verify(jwt);
+        } catch (JwtException e) {
+            throw new NoAuthenticateUser("Token not found");
+        }
+        if (!verified.isAccessToken())
+            throw new NoAuthenticateUser("Token not found");
+        var storedToken = tokenRepository.findByJti(verified.getId())
                 .orElseThrow(() -> new NoAuthenticateUser("Token not found"));
 
         if (!storedToken.isExpired() && !storedToken.isRevoked()) {
             userService.disconnect(storedToken.getUser());
-            storedToken.setExpired(true);
-            storedToken.setRevoked(true);
-            tokenRepository.save(storedToken);
+            boolean published = userService.revokeAllUserTokens(storedToken.getUser());
             SecurityContextHolder.clearContext();
+            if (!published)
+                throw new RevocationNotPublishedException();
         } else
             throw new NoAuthenticateUser("No user is authenticated");
     }
@@ -0,0 +1,93 @@
+package com.ouharri.cirestechnologies.security;
+
+import com.ouharri.cirestechnologies.model.entities.Token;
+import com.ouharri.cirestechnologies.repositories.TokenRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk revocation of the tokens of a user, reporting exactly the tokens it revoked, so that the
+ * revocations published to the other nodes match the database:
+ * <ul>
+ *     <li>on PostgreSQL, with a single {@code UPDATE ... RETURNING};</li>
+ *     <li>on H2, with a single {@code SELECT ... FROM FINAL TABLE (UPDATE ...)};</li>
+ *     <li>otherwise, by selecting the live tokens of the user, then updating those tokens only.</li>
+ * </ul>
+ * <p>
+ * The single statements bypass JPA: the persistence context is flushed before them and cleared
+ * after them, as {@code clearAutomatically} does for the update of the other databases, so that no
+ * stale token is read nor written back afterwards.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Component
+public class TokenBulkRevoker {
+
+    private static final String UPDATE = "UPDATE token SET revoked = true, expired = true WHERE user_id = ? AND revoked = false AND expired = false";
+    private static final String RETURNING = UPDATE + " RETURNING jti, expires_at";
+    private static final String FINAL_TABLE = "SELECT jti, expires_at FROM FINAL TABLE (" + UPDATE + ")";
+    private static final RowMapper<Token> REVOKED = (rs, rowNum) -> Token.builder()
+            .jti(rs.getString("jti"))
+            .expiresAt(rs.getTimestamp("expires_at").toInstant())
+            .revoked(true)
+            .expired(true)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenRepository tokenRepository;
+    private final EntityManager entityManager;
+    private volatile String statement;
+
+    public TokenBulkRevoker(JdbcTemplate jdbcTemplate, TokenRepository tokenRepository, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenRepository = tokenRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Marks all the tokens of a user that are neither revoked nor expired as both.
+     *
+     * @param userId The identifier of the user.
+     * @return The tokens revoked, with their {@code jti} and expiry only.
+     */
+    @Transactional
+    public List<Token> revokeAllByUser(UUID userId) {
+        String single = statement();
+        if (single.isEmpty()) {
+            List<Token> tokens = tokenRepository.findAllValidTokenByUser(userId, Instant.now());
+            if (!tokens.isEmpty())
+                tokenRepository.revokeAll(tokens.stream().map(Token::getId).toList());
+            return tokens;
+        }
+
+        entityManager.flush();
+        List<Token> revoked = jdbcTemplate.query(single, REVOKED, userId);
+        entityManager.clear();
+        return revoked;
+    }
+
+    /**
+     * @return The single statement revoking the tokens of a user on this database, empty if it has none.
+     */
+    private String statement() {
+        if (statement == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            statement = switch (product == null ? "" : product) {
+                case "PostgreSQL" -> RETURNING;
+                case "H2" -> FINAL_TABLE;
+                default -> "";
+            };
+        }
+        return statement;
+    }
+}
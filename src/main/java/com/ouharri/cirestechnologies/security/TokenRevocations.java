@@ -0,0 +1,110 @@
+package com.ouharri.cirestechnologies.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * In-memory set of the revoked JWTs that are not expired yet, replicated across nodes, so that
+ * authenticating a request never reaches the database.
+ * <p>
+ * Tokens are identified by their {@link VerifiedToken#getId() jti} claim. A revocation
+ * is applied locally, then published on the {@code application.security.jwt.revocation-channel}
+ * Redis channel, which every node listens to. An entry is dropped once its token expires, as an
+ * expired token is rejected anyway, so the set only holds the revoked tokens still alive.
+ * </p>
+ * <p>
+ * The database remains the record of revocations: nodes load the live ones from it on startup.
+ * </p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Slf4j
+@Component
+public class TokenRevocations implements MessageListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final Cache<String, Instant> revoked = Caffeine.newBuilder()
+            .expireAfter(Expiry.creating((String id, Instant expiresAt) -> untilExpiry(expiresAt)))
+            .build();
+
+    public TokenRevocations(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${application.security.jwt.revocation-channel:token-revocations}") String channel
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Checks whether a token is revoked.
+     *
+     * @param id The identifier of the token.
+     * @return True if the token is revoked, otherwise false.
+     */
+    public boolean isRevoked(String id) {
+        return revoked.getIfPresent(id) != null;
+    }
+
+    /**
+     * Revokes tokens on this node only.
+     *
+     * @param tokens The expiry of each token to revoke, by identifier.
+     */
+    public void revokeLocally(Map<String, Instant> tokens) {
+        tokens.forEach(revoked::put);
+    }
+
+    /**
+     * Revokes tokens on every node.
+     *
+     * @param tokens The expiry of each token to revoke, by identifier.
+     * @return True if the revocation was published, false if only this node rejects the tokens.
+     */
+    public boolean revoke(Map<String, Instant> tokens) {
+        if (tokens.isEmpty())
+            return true;
+
+        revokeLocally(tokens);
+        StringBuilder message = new StringBuilder();
+        tokens.forEach((id, expiresAt) -> message.append(id).append(' ').append(expiresAt.toEpochMilli()).append('\n'));
+        try {
+            redisTemplate.convertAndSend(channel, message.toString());
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not publish the revocation of {} tokens", tokens.size(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        for (String line : new String(message.getBody(), StandardCharsets.UTF_8).split("\n")) {
+            int separator = line.indexOf(' ');
+            if (separator > 0)
+                revoked.put(line.substring(0, separator), Instant.ofEpochMilli(Long.parseLong(line.substring(separator + 1).trim())));
+        }
+    }
+
+    private static Duration untilExpiry(Instant expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ouharri.cirestechnologies.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal of the requests authenticated by a JWT, rebuilt from the claims of the token alone:
+ * its subject, the {@code uid} claim and the {@code roles} and {@code permissions} claims, so that
+ * authenticating a request does not load the user from the database.
+ * Services needing the user entity load it by {@link #getUsername() username}.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+public final class TokenUserDetails implements UserDetails {
+
+    /**
+     * The identifier of the user, {@code null} for tokens issued without a {@code uid} claim.
+     */
+    private final UUID id;
+
+    /**
+     * The username of the user.
+     */
+    private final String username;
+
+    /**
+     * The roles and permissions of the user when the token was issued.
+     */
+    private final Collection<GrantedAuthority> authorities;
+
+    private TokenUserDetails(UUID id, String username, Collection<GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Rebuilds the principal of a verified token.
+     *
+     * @param token The verified token.
+     * @return The principal the token was issued to.
+     */
+    public static TokenUserDetails from(VerifiedToken token) {
+        String uid = token.getClaims().get("uid", String.class);
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String claim : List.of("roles", "permissions")) {
+            List<?> values = token.getClaims().get(claim, List.class);
+            if (values != null)
+                values.forEach(value -> authorities.add(new SimpleGrantedAuthority(value.toString())));
+        }
+        return new TokenUserDetails(uid == null ? null : UUID.fromString(uid), token.getSubject(), List.copyOf(authorities));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
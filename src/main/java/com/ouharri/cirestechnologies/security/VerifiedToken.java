@@ -0,0 +1,105 @@
+package com.ouharri.cirestechnologies.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Claims of a JWT whose signature was verified, parsed once and shared by every check of the
+ * token, so that a request never parses nor verifies the same token twice.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Getter
+public final class VerifiedToken {
+
+    /**
+     * Name of the claim telling access tokens from refresh tokens.
+     */
+    public static final String TOKEN_USE = "token_use";
+
+    /**
+     * {@link #TOKEN_USE} of access tokens.
+     */
+    public static final String ACCESS = "access";
+
+    /**
+     * {@link #TOKEN_USE} of refresh tokens.
+     */
+    public static final String REFRESH = "refresh";
+
+    /**
+     * The SHA-256 digest of the token, Base64-encoded.
+     */
+    private final String digest;
+
+    /**
+     * The verified claims of the token.
+     */
+    private final Claims claims;
+
+    public VerifiedToken(String digest, Claims claims) {
+        this.digest = digest;
+        this.claims = claims;
+    }
+
+    /**
+     * @return The identifier of the token, its {@code jti} claim, {@code null} for tokens issued without one.
+     */
+    public String getId() {
+        return claims.getId();
+    }
+
+    /**
+     * @return The username the token was issued to.
+     */
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    /**
+     * @return When the token expires.
+     */
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    /**
+     * @return True if the token is expired, otherwise false.
+     */
+    public boolean isExpired() {
+        return claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * @return True if this is an access token carrying a {@code jti} claim, otherwise false; tokens
+     * issued without {@link #TOKEN_USE} or {@code jti} cannot be revoked, so they are never accepted.
+     */
+    public boolean isAccessToken() {
+        return isUsedFor(ACCESS);
+    }
+
+    /**
+     * @return True if this is a refresh token carrying a {@code jti} claim, otherwise false.
+     */
+    public boolean isRefreshToken() {
+        return isUsedFor(REFRESH);
+    }
+
+    private boolean isUsedFor(String tokenUse) {
+        return tokenUse.equals(claims.get(TOKEN_USE, String.class)) && claims.getId() != null;
+    }
+
+    /**
+     * Resolves a claim of the token.
+     *
+     * @param claimsResolver Function to resolve the desired claim from the token's claims.
+     * @param <T>            Type of the claim.
+     * @return The resolved claim.
+     */
+    public <T> T getClaim(Function<Claims, T> claimsResolver) {
+        return claimsResolver.apply(claims);
+    }
+}
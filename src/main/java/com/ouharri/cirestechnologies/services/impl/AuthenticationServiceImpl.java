@@ -88,11 +88,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         var refreshToken = jwtService.generateRefreshToken(user);
 
         userService.saveUserToken(savedUser, jwtToken);
+        userService.saveUserToken(savedUser, refreshToken);
         log.info("Access and refresh tokens generated and saved for user with ID: {}", savedUser.getId());
 
         return AuthenticationResponse.builder()
-                .accessToken(jwtToken)
-                .refreshToken(refreshToken)
+                .accessToken(jwtToken.token())
+                .refreshToken(refreshToken.token())
                 .build();
     }
 
@@ -111,7 +112,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     }
 
     /**
-     * Refreshes the JWT access token using a valid refresh token.
+     * Refreshes the JWT access token using a valid refresh token. Access tokens are not accepted.
      *
      * @param request  HttpServletRequest containing the refresh token in the authorization header.
      * @param response HttpServletResponse to write the new access token.
@@ -123,14 +124,14 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 jwtService.extractUsername(refreshToken)
         );
 
-        if (jwtService.isTokenValid(refreshToken, user)) {
+        if (jwtService.verify(refreshToken).isRefreshToken() && jwtService.isTokenValid(refreshToken, user)) {
             var authResponse = createAndSaveTokens(user);
             new ObjectMapper().writeValue(response.getOutputStream(), authResponse);
         }
     }
 
     /**
-     * Checks whether a token is valid.
+     * Checks whether a token is a valid access token.
      *
      * @param token Token to be checked
      * @return True if the token is valid, false otherwise
@@ -145,7 +146,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
         if (userEmail != null) {
             var user = userService.findByUsernameOrEmail(userEmail);
-            var isValide = jwtService.isTokenValid(jwt, user);
+            var isValide = jwtService.verify(jwt).isAccessToken() && jwtService.isTokenValid(jwt, user);
 
             if (!isValide)
                 throw new NoAuthenticateUser("Invalid token");
@@ -177,6 +178,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     /**
      * Generates JWT access and refresh tokens for the user, saves them, and returns an authentication response.
+     * <p>
+     * The former tokens of the user are revoked. Unlike a logout, the login still succeeds when
+     * that revocation cannot be published, as the new tokens are valid on every node: a warning is
+     * logged, and the other nodes keep accepting the former tokens until they restart or the
+     * tokens expire.
+     * </p>
      *
      * @param user The user for whom to create and save tokens.
      * @return AuthenticationResponse containing generated access and refresh tokens.
@@ -186,12 +193,14 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         var refreshToken = jwtService.generateRefreshToken(user);
         user.setStatus(UserStatus.ONLINE);
         userService.saveUser(user);
-        userService.revokeAllUserTokens(user);
+        if (!userService.revokeAllUserTokens(user))
+            log.warn("Former tokens of user {} revoked on this node only", user.getId());
         userService.saveUserToken(user, jwtToken);
+        userService.saveUserToken(user, refreshToken);
 
         return AuthenticationResponse.builder()
-                .accessToken(jwtToken)
-                .refreshToken(refreshToken)
+                .accessToken(jwtToken.token())
+                .refreshToken(refreshToken.token())
                 .build();
     }
 
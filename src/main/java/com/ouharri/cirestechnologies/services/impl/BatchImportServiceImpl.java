@@ -0,0 +1,200 @@
+package com.ouharri.cirestechnologies.services.impl;
+
+import com.ouharri.cirestechnologies.core.UserImportBatchConfig;
+import com.ouharri.cirestechnologies.exceptions.ResourceNotCreatedException;
+import com.ouharri.cirestechnologies.exceptions.ResourceNotFoundException;
+import com.ouharri.cirestechnologies.importer.ImportReceipts;
+import com.ouharri.cirestechnologies.model.dto.responses.BatchImportResponse;
+import com.ouharri.cirestechnologies.services.spec.BatchImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Service class launching the Spring Batch {@code userImportJob} on the newline-delimited JSON
+ * files of {@code application.users.import.batch.directory}.
+ *
+ * <p>A file is identified by its path, size and modification time: launching the import of a file
+ * whose last import failed restarts it where it stopped, while a file already imported is refused.
+ * The content of the file is digested first and its import claimed with the
+ * {@link ImportReceipts}: content already imported, or being imported, by any entry point is
+ * refused as well.
+ * Imports launched through the API run on the {@code ioTaskExecutor}; when scheduling is enabled,
+ * every {@code .ndjson} file of the directory is also imported, one after the other, on the
+ * {@code application.users.import.batch.cron} schedule, which is disabled by default.</p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Slf4j
+@Service
+public class BatchImportServiceImpl implements BatchImportService {
+
+    private final Job job;
+    private final ImportReceipts importReceipts;
+    private final JobLauncher jobLauncher;
+    private final JobExplorer jobExplorer;
+    private final TaskExecutorJobLauncher asyncJobLauncher;
+    private final Path directory;
+
+    public BatchImportServiceImpl(
+            @Qualifier("userImportJob") Job job,
+            ImportReceipts importReceipts,
+            JobLauncher jobLauncher,
+            JobExplorer jobExplorer,
+            JobRepository jobRepository,
+            @Qualifier("ioTaskExecutor") TaskExecutor executor,
+            @Value("${application.users.import.batch.directory:${java.io.tmpdir}/import-batch}") Path directory
+    ) throws Exception {
+        this.job = job;
+        this.importReceipts = importReceipts;
+        this.jobLauncher = jobLauncher;
+        this.jobExplorer = jobExplorer;
+        this.asyncJobLauncher = new TaskExecutorJobLauncher();
+        this.asyncJobLauncher.setJobRepository(jobRepository);
+        this.asyncJobLauncher.setTaskExecutor(executor);
+        this.asyncJobLauncher.afterPropertiesSet();
+        this.directory = Files.createDirectories(directory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Launches the import of a file of the import directory, returning once it is started.
+     *
+     * @param fileName The name of the file in the import directory.
+     * @return The state of the launched execution.
+     * @throws ResourceNotFoundException   If the file is not an NDJSON file of the import directory.
+     * @throws ResourceNotCreatedException If the file is already imported or being imported.
+     */
+    public BatchImportResponse launch(String fileName) {
+        Path file = resolve(fileName);
+        String digest = digest(file);
+        if (importReceipts.claim(digest, Duration.ZERO).isPresent())
+            throw new ResourceNotCreatedException("Import of " + fileName + " not launched: its content is already imported");
+        try {
+            return toResponse(asyncJobLauncher.run(job, parametersOf(file, digest)));
+        } catch (JobExecutionException | RuntimeException e) {
+            importReceipts.release(digest);
+            throw new ResourceNotCreatedException("Import of " + fileName + " not launched: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the state and progress of an execution of the import job.
+     *
+     * @param id The identifier of the execution.
+     * @return The state of the execution.
+     * @throws ResourceNotFoundException If no such execution exists.
+     */
+    public BatchImportResponse getExecution(long id) {
+        JobExecution execution = jobExplorer.getJobExecution(id);
+        if (execution == null || !UserImportBatchConfig.JOB_NAME.equals(execution.getJobInstance().getJobName()))
+            throw new ResourceNotFoundException("Import execution " + id + " not found.");
+        return toResponse(execution);
+    }
+
+    /**
+     * Imports every NDJSON file of the import directory, one after the other.
+     */
+    @Scheduled(cron = "${application.users.import.batch.cron:-}")
+    public void importDirectory() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.ndjson")) {
+            for (Path file : files) {
+                String digest = digest(file);
+                try {
+                    if (importReceipts.claim(digest, Duration.ZERO).isPresent()) {
+                        log.debug("The content of {} is already imported", file);
+                        continue;
+                    }
+                } catch (ResourceNotCreatedException e) {
+                    log.debug("The content of {} is being imported", file);
+                    continue;
+                }
+                try {
+                    JobExecution execution = jobLauncher.run(job, parametersOf(file, digest));
+                    log.info("Import of {} ended with status {}", file, execution.getStatus());
+                } catch (JobInstanceAlreadyCompleteException e) {
+                    importReceipts.release(digest);
+                    log.debug("{} is already imported", file);
+                } catch (JobExecutionException e) {
+                    importReceipts.release(digest);
+                    log.warn("Import of {} not launched: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Error listing the import directory {}", directory, e);
+        }
+    }
+
+    private Path resolve(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.getParent().equals(directory) || !fileName.endsWith(".ndjson") || !Files.isRegularFile(file))
+            throw new ResourceNotFoundException("No NDJSON file " + fileName + " in the import directory.");
+        return file;
+    }
+
+    private static String digest(Path file) {
+        try {
+            return ImportReceipts.digest(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error digesting " + file, e);
+        }
+    }
+
+    private static JobParameters parametersOf(Path file, String digest) {
+        try {
+            return new JobParametersBuilder()
+                    .addString(UserImportBatchConfig.FILE_PARAMETER, file.toString())
+                    .addLong("size", Files.size(file))
+                    .addLong("modified", Files.getLastModifiedTime(file).toMillis())
+                    .addString(UserImportBatchConfig.DIGEST_PARAMETER, digest, false)
+                    .toJobParameters();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading the attributes of " + file, e);
+        }
+    }
+
+    private static BatchImportResponse toResponse(JobExecution execution) {
+        List<StepExecution> partitions = execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().startsWith(UserImportBatchConfig.PARTITION_STEP_NAME + ":"))
+                .toList();
+        Path file = Path.of(execution.getJobParameters().getString(UserImportBatchConfig.FILE_PARAMETER));
+
+        return BatchImportResponse.builder()
+                .id(execution.getId())
+                .instanceId(execution.getJobInstance().getInstanceId())
+                .fileName(file.getFileName().toString())
+                .status(execution.getStatus())
+                .partitions(partitions.size())
+                .read(partitions.stream().mapToLong(StepExecution::getReadCount).sum())
+                .written(partitions.stream().mapToLong(StepExecution::getWriteCount).sum())
+                .skipped(partitions.stream().mapToLong(StepExecution::getSkipCount).sum())
+                .startedAt(execution.getStartTime())
+                .endedAt(execution.getEndTime())
+                .error(execution.getAllFailureExceptions().stream()
+                        .findFirst()
+                        .map(Throwable::getMessage)
+                        .orElse(null))
+                .build();
+    }
+}
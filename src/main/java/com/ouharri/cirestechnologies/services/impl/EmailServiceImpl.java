@@ -3,8 +3,8 @@ package com.ouharri.cirestechnologies.services.impl;
 import com.ouharri.cirestechnologies.services.spec.EmailService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -12,8 +12,7 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 /**
  * Service implementation for sending emails using Spring's JavaMailSender.
@@ -21,12 +20,16 @@ import java.util.concurrent.Executors;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender emailSender;
     private static final String FROM_ADDRESS = "noreply@aftas.com";
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    private final Executor executor;
+
+    public EmailServiceImpl(JavaMailSender emailSender, @Qualifier("ioTaskExecutor") Executor executor) {
+        this.emailSender = emailSender;
+        this.executor = executor;
+    }
 
     /**
      * Sends a simple email message.
@@ -70,13 +73,19 @@ public class EmailServiceImpl implements EmailService {
     }
 
     /**
-     * Sends a simple email message asynchronously.
+     * Sends a simple email message asynchronously, on the I/O executor.
      *
      * @param to      The recipient's email address.
      * @param subject The subject of the email.
      * @param text    The content of the email.
      */
     public void sendSimpleMessageAsync(String to, String subject, String text) {
-        executorService.submit(() -> sendSimpleMessage(to, subject, text));
+        executor.execute(() -> {
+            try {
+                sendSimpleMessage(to, subject, text);
+            } catch (RuntimeException e) {
+                log.error("Error sending email to {}", to, e);
+            }
+        });
     }
 }
\ No newline at end of file
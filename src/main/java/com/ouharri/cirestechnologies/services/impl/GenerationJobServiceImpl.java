@@ -0,0 +1,236 @@
+package com.ouharri.cirestechnologies.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.exceptions.ResourceNotFoundException;
+import com.ouharri.cirestechnologies.generator.GenerationJob;
+import com.ouharri.cirestechnologies.generator.UserGenerationScheduler;
+import com.ouharri.cirestechnologies.generator.UserStreamWriter;
+import com.ouharri.cirestechnologies.model.dto.requests.GenerationJobRequest;
+import com.ouharri.cirestechnologies.model.dto.responses.GenerationJobResponse;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.enums.GenerationCompression;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.model.enums.GenerationJobStatus;
+import com.ouharri.cirestechnologies.services.spec.GenerationJobService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service class for asynchronous user generation jobs.
+ *
+ * <p>Jobs are run on the {@code ioTaskExecutor}, {@code application.users.generation.jobs.concurrency}
+ * at a time, each one generating its users in parallel through the {@link UserGenerationScheduler}.
+ * Users are streamed chunk by chunk to a {@code .part} file through a buffered {@link FileChannel},
+ * so the heap only holds the chunks in flight whatever the count, and the file is renamed once
+ * complete. Completed files are served as {@link FileSystemResource}s, which Spring MVC answers
+ * with byte ranges when asked, so interrupted downloads can be resumed.</p>
+ *
+ * <p>Jobs are tracked in memory; finished jobs and their files are deleted after
+ * {@code application.users.generation.jobs.retention}.</p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Slf4j
+@Service
+public class GenerationJobServiceImpl implements GenerationJobService {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final UserGenerationScheduler generationScheduler;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int maxCount;
+    private final Duration retention;
+    private final Executor executor;
+    private final Semaphore slots;
+    private final Map<UUID, GenerationJob> jobs = new ConcurrentHashMap<>();
+
+    public GenerationJobServiceImpl(
+            UserGenerationScheduler generationScheduler,
+            ObjectMapper objectMapper,
+            @Qualifier("ioTaskExecutor") Executor executor,
+            @Value("${application.users.generation.jobs.directory:${java.io.tmpdir}/generation-jobs}") Path directory,
+            @Value("${application.users.generation.jobs.max-count:50000000}") int maxCount,
+            @Value("${application.users.generation.jobs.concurrency:1}") int concurrency,
+            @Value("${application.users.generation.jobs.retention:24h}") Duration retention
+    ) throws IOException {
+        this.generationScheduler = generationScheduler;
+        this.objectMapper = objectMapper;
+        this.directory = Files.createDirectories(directory);
+        this.maxCount = maxCount;
+        this.retention = retention;
+        this.executor = executor;
+        this.slots = new Semaphore(Math.max(1, concurrency), true);
+    }
+
+    /**
+     * Submits a generation job and returns immediately.
+     *
+     * @param request The count, format, seed and compression level of the file to generate.
+     * @return The state of the submitted job.
+     * @throws ResourceNotFoundException If the count, format or level is invalid.
+     */
+    public GenerationJobResponse submit(GenerationJobRequest request) {
+        if (request.count() > maxCount)
+            throw new ResourceNotFoundException("Invalid count value. Please provide a positive integer value less than or equal to " + maxCount + ".");
+
+        String format = request.format() != null ? request.format() : GenerationFormat.JSON.getExtension();
+        GenerationCompression compression = GenerationCompression.fromFormat(format);
+        GenerationJob job = new GenerationJob(
+                request.count(),
+                request.seed() != null ? request.seed() : ThreadLocalRandom.current().nextLong(),
+                GenerationFormat.fromParameter(compression.stripSuffix(format)),
+                compression,
+                compression.level(request.level()),
+                directory
+        );
+
+        purgeExpiredJobs();
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job));
+        return toResponse(job);
+    }
+
+    /**
+     * Retrieves the state and progress of a generation job.
+     *
+     * @param id The identifier of the job.
+     * @return The state of the job.
+     * @throws ResourceNotFoundException If no such job exists.
+     */
+    public GenerationJobResponse getJob(UUID id) {
+        return toResponse(findJob(id));
+    }
+
+    /**
+     * Retrieves the file of a completed generation job.
+     *
+     * @param id The identifier of the job.
+     * @return The generated file.
+     * @throws ResourceNotFoundException If no such job exists or it is not completed.
+     */
+    public Resource getFile(UUID id) {
+        GenerationJob job = findJob(id);
+        if (job.getStatus() != GenerationJobStatus.COMPLETED)
+            throw new ResourceNotFoundException("Generation job " + id + " is not completed.");
+        return new FileSystemResource(job.getFile());
+    }
+
+    private GenerationJob findJob(UUID id) {
+        GenerationJob job = jobs.get(id);
+        if (job == null)
+            throw new ResourceNotFoundException("Generation job " + id + " not found.");
+        return job;
+    }
+
+    private void run(GenerationJob job) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Generation cancelled");
+            return;
+        }
+
+        try {
+            generate(job);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private void generate(GenerationJob job) {
+        job.start();
+        Path part = job.partFile();
+
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             UserStreamWriter writer = UserStreamWriter.open(
+                     job.getFormat(),
+                     job.getCompression().wrap(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), job.getLevel()),
+                     objectMapper
+             )) {
+            generationScheduler.stream(job.getCount(), job.getSeed(), users -> {
+                for (UserGeneratedResponses user : users)
+                    writer.write(user);
+                job.progress(users.length);
+            });
+        } catch (IOException | RuntimeException e) {
+            log.error("Error running generation job {}", job.getId(), e);
+            deleteQuietly(part);
+            job.fail("Error generating users");
+            return;
+        }
+
+        try {
+            Files.move(part, job.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.complete();
+        } catch (IOException e) {
+            log.error("Error completing generation job {}", job.getId(), e);
+            deleteQuietly(part);
+            job.fail("Error storing generated users");
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        Instant expiry = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.getFinishedAt().isAfter(expiry))
+                return false;
+            deleteQuietly(job.getFile());
+            return true;
+        });
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+
+    private static GenerationJobResponse toResponse(GenerationJob job) {
+        return GenerationJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .count(job.getCount())
+                .generated(job.getGenerated().get())
+                .seed(job.getSeed())
+                .fileName(job.fileName())
+                .size(job.getStatus() == GenerationJobStatus.COMPLETED ? job.getFile().toFile().length() : null)
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(job -> {
+            deleteQuietly(job.partFile());
+            deleteQuietly(job.getFile());
+        });
+    }
+}
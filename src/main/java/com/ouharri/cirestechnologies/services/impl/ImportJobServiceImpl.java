@@ -0,0 +1,261 @@
+package com.ouharri.cirestechnologies.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.exceptions.ResourceNotCreatedException;
+import com.ouharri.cirestechnologies.exceptions.ResourceNotFoundException;
+import com.ouharri.cirestechnologies.generator.UserStreamReader;
+import com.ouharri.cirestechnologies.importer.ImportJob;
+import com.ouharri.cirestechnologies.importer.ImportListener;
+import com.ouharri.cirestechnologies.importer.ImportReceipts;
+import com.ouharri.cirestechnologies.importer.UserImportPipeline;
+import com.ouharri.cirestechnologies.model.dto.responses.ImportJobResponse;
+import com.ouharri.cirestechnologies.model.dto.responses.ImportRecordResponse;
+import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDTO;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.services.spec.ImportJobService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class for asynchronous user import jobs.
+ *
+ * <p>The uploaded file is spooled to {@code application.users.import.jobs.directory}, and digested
+ * on the way, before the request returns, so no HTTP thread waits for the import. Jobs are then run on the
+ * {@code ioTaskExecutor}, {@code application.users.import.jobs.concurrency} at a time, through
+ * the {@link UserImportPipeline}, and the spooled file is deleted once they are over. A file
+ * already imported, or being imported elsewhere, whose end is then waited for, is not imported
+ * again: its job completes with the counters of the first import, as recorded by the
+ * {@link ImportReceipts}.</p>
+ *
+ * <p>The progress of a job can be polled, and is pushed to the user who submitted it, if
+ * authenticated, on the {@code /user/import-jobs} STOMP destination: when it starts and ends, and
+ * at most every {@code application.users.import.jobs.progress-interval} while it runs.</p>
+ *
+ * <p>Jobs are tracked in memory; finished jobs are forgotten after
+ * {@code application.users.import.jobs.retention}.</p>
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+@Slf4j
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private static final String DESTINATION = "/import-jobs";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final UserImportPipeline importPipeline;
+    private final ImportReceipts importReceipts;
+    private final ObjectMapper objectMapper;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Executor executor;
+    private final Path directory;
+    private final Duration retention;
+    private final Duration progressInterval;
+    private final Semaphore slots;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobServiceImpl(
+            UserImportPipeline importPipeline,
+            ImportReceipts importReceipts,
+            ObjectMapper objectMapper,
+            SimpMessagingTemplate messagingTemplate,
+            @Qualifier("ioTaskExecutor") Executor executor,
+            @Value("${application.users.import.jobs.directory:${java.io.tmpdir}/import-jobs}") Path directory,
+            @Value("${application.users.import.jobs.concurrency:1}") int concurrency,
+            @Value("${application.users.import.jobs.retention:24h}") Duration retention,
+            @Value("${application.users.import.jobs.progress-interval:1s}") Duration progressInterval
+    ) throws IOException {
+        this.importPipeline = importPipeline;
+        this.importReceipts = importReceipts;
+        this.objectMapper = objectMapper;
+        this.messagingTemplate = messagingTemplate;
+        this.executor = executor;
+        this.directory = Files.createDirectories(directory);
+        this.retention = retention;
+        this.progressInterval = progressInterval;
+        this.slots = new Semaphore(Math.max(1, concurrency), true);
+    }
+
+    /**
+     * Spools the file and submits its import, returning once the file is on disk.
+     *
+     * @param file      The multipart file containing user data.
+     * @param principal The user submitting the job, to push its progress to, if authenticated.
+     * @return The state of the submitted job.
+     * @throws ResourceNotFoundException   If the file is empty or its format is not supported.
+     * @throws ResourceNotCreatedException If the file cannot be spooled.
+     */
+    public ImportJobResponse submit(MultipartFile file, Principal principal) {
+        GenerationFormat format = GenerationFormat.fromUpload(file.getContentType(), file.getOriginalFilename());
+        if (file.isEmpty())
+            throw new ResourceNotFoundException("No user data provided to upload. The file is empty.");
+
+        ImportJob job = new ImportJob(principal != null ? principal.getName() : null, file.getOriginalFilename(), format, directory);
+        String digest;
+        try (InputStream in = file.getInputStream()) {
+            digest = ImportReceipts.spool(in, job.getFile());
+        } catch (IOException e) {
+            log.error("Error spooling import job {}", job.getId(), e);
+            deleteQuietly(job.getFile());
+            throw new ResourceNotCreatedException("Error spooling the uploaded file");
+        }
+
+        purgeExpiredJobs();
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, digest));
+        return toResponse(job);
+    }
+
+    /**
+     * Retrieves the state and progress of an import job.
+     *
+     * @param id The identifier of the job.
+     * @return The state of the job.
+     * @throws ResourceNotFoundException If no such job exists.
+     */
+    public ImportJobResponse getJob(UUID id) {
+        ImportJob job = jobs.get(id);
+        if (job == null)
+            throw new ResourceNotFoundException("Import job " + id + " not found.");
+        return toResponse(job);
+    }
+
+    private void run(ImportJob job, String digest) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deleteQuietly(job.getFile());
+            job.fail("Import cancelled");
+            publish(job);
+            return;
+        }
+
+        try {
+            importUsers(job, digest);
+        } finally {
+            slots.release();
+            deleteQuietly(job.getFile());
+            publish(job);
+        }
+    }
+
+    private void importUsers(ImportJob job, String digest) {
+        job.start();
+        publish(job);
+
+        Optional<UploadSummaryResponseDTO> previous;
+        try {
+            previous = importReceipts.claim(digest);
+        } catch (ResourceNotCreatedException e) {
+            job.fail(e.getMessage());
+            return;
+        }
+        if (previous.isPresent()) {
+            job.replay(previous.get());
+            return;
+        }
+
+        AtomicLong nextPush = new AtomicLong(System.nanoTime() + progressInterval.toNanos());
+        ImportListener listener = new ImportListener() {
+            @Override
+            public void outcome(ImportRecordResponse outcome) {
+                job.outcome(outcome);
+                long due = nextPush.get();
+                if (System.nanoTime() - due >= 0 && nextPush.compareAndSet(due, System.nanoTime() + progressInterval.toNanos()))
+                    publish(job);
+            }
+
+            @Override
+            public void parsed(int records) {
+                job.parsed(records);
+            }
+
+            @Override
+            public void hashed(int users) {
+                job.hashed(users);
+            }
+        };
+
+        try (UserStreamReader reader = UserStreamReader.open(
+                job.getFormat(),
+                new BufferedInputStream(Files.newInputStream(job.getFile()), BUFFER_SIZE),
+                objectMapper
+        )) {
+            importReceipts.complete(digest, importPipeline.importUsers(reader, listener));
+            job.complete();
+        } catch (IOException | RuntimeException e) {
+            importReceipts.release(digest);
+            log.error("Error running import job {}", job.getId(), e);
+            job.fail("Error importing users: " + e.getMessage());
+        }
+    }
+
+    private void publish(ImportJob job) {
+        if (job.getOwner() == null)
+            return;
+        try {
+            messagingTemplate.convertAndSendToUser(job.getOwner(), DESTINATION, toResponse(job));
+        } catch (MessagingException e) {
+            log.warn("Could not push the progress of import job {}", job.getId(), e);
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        Instant expiry = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expiry));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+
+    private static ImportJobResponse toResponse(ImportJob job) {
+        return ImportJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .fileName(job.getFileName())
+                .parsed(job.getParsed().get())
+                .hashed(job.getHashed().get())
+                .inserted(job.getInserted().get())
+                .rejected(job.getRejected().get())
+                .throughput(job.throughput())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .replayed(job.isReplayed())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(job -> deleteQuietly(job.getFile()));
+    }
+}
@@ -1,42 +1,118 @@
 package com.ouharri.cirestechnologies.services.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ouharri.cirestechnologies.model.entities.Token;
+import com.ouharri.cirestechnologies.model.entities.User;
 import com.ouharri.cirestechnologies.repositories.TokenRepository;
+import com.ouharri.cirestechnologies.security.IssuedToken;
+import com.ouharri.cirestechnologies.security.JwtKeyRing;
+import com.ouharri.cirestechnologies.security.TokenRevocations;
+import com.ouharri.cirestechnologies.security.VerifiedToken;
 import com.ouharri.cirestechnologies.services.spec.JwtService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service class for handling JWT generation, parsing, and validation.
+ * <p>
+ * A token is parsed and its signature verified at most once per node: its {@link VerifiedToken}
+ * is kept, keyed by the SHA-256 digest of the token, until the token expires or
+ * {@code application.security.jwt.cache.maximum-size} tokens are cached, and every later check
+ * of the token reuses it. Tokens failing verification are never cached. The cache is published
+ * as the {@code cache.*} meters of Micrometer, tagged with the {@code jwt.verified} cache name.
+ * </p>
+ * <p>
+ * Keys are decoded and the parser is built once, at startup, by the {@link JwtKeyRing}. Tokens are
+ * signed with {@code application.security.jwt.secret-key} under the
+ * {@code application.security.jwt.key-id} identifier; to rotate it, move it to
+ * {@code application.security.jwt.previous-keys}, as a {@code kid:key} pair, until the tokens it
+ * signed expire.
+ * </p>
+ * <p>
+ * Validating a token never reaches the database: revoked tokens are looked up in the
+ * {@link TokenRevocations} of this node by the {@code jti} claim of the token, kept in sync across
+ * nodes through Redis and loaded from the database on startup. Access and refresh tokens are told
+ * apart by their {@code token_use} claim, and carry the identifier, roles and permissions of their
+ * user, from which requests rebuild their principal.
+ * </p>
  *
  * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
  */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
 
     private final TokenRepository tokenRepository;
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration;
-    @Value("${application.security.jwt.refresh-token.expiration}")
-    private long refreshExpiration;
+    private final TokenRevocations revocations;
+    private final JwtKeyRing keyRing;
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtServiceImpl(
+            TokenRepository tokenRepository,
+            TokenRevocations revocations,
+            MeterRegistry registry,
+            @Value("${application.security.jwt.secret-key}") String secretKey,
+            @Value("${application.security.jwt.key-id:default}") String keyId,
+            @Value("${application.security.jwt.previous-keys:}") String previousKeys,
+            @Value("${application.security.jwt.expiration}") long jwtExpiration,
+            @Value("${application.security.jwt.refresh-token.expiration}") long refreshExpiration,
+            @Value("${application.security.jwt.cache.maximum-size:100000}") long cacheSize
+    ) {
+        this.tokenRepository = tokenRepository;
+        this.revocations = revocations;
+        this.keyRing = new JwtKeyRing(keyId, secretKey, previousKeys);
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.verifiedTokens = CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.creating((String digest, VerifiedToken token) ->
+                        Duration.ofMillis(Math.max(0, token.getExpiration().getTime() - System.currentTimeMillis()))))
+                .recordStats()
+                .build(), "jwt.verified");
+    }
+
+    /**
+     * Verifies a JWT token and parses its claims, unless it was already verified on this node.
+     *
+     * @param token JWT token
+     * @return The verified claims of the token
+     * @throws io.jsonwebtoken.JwtException If the token is malformed, expired or wrongly signed
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        return verifiedTokens.get(digest, key -> new VerifiedToken(key, keyRing.parse(token)));
+    }
 
     /**
      * Extracts the username from a JWT token.
@@ -57,11 +133,10 @@ public class JwtServiceImpl implements JwtService {
      * @return Extracted claim value
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return verify(token).getClaim(claimsResolver);
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public IssuedToken generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
 
@@ -70,27 +145,23 @@ public class JwtServiceImpl implements JwtService {
      *
      * @param extraClaims Additional claims to include in the token
      * @param userDetails User details for whom the token is generated
-     * @return Generated JWT token
+     * @return Generated JWT token, with its identifier and expiry
      */
-    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return generateToken(extraClaims, userDetails, jwtExpiration);
+    public IssuedToken generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        return buildToken(extraClaims, userDetails, VerifiedToken.ACCESS, jwtExpiration);
     }
 
     /**
      * Generates a refresh token for the given user details.
      *
      * @param userDetails User details for whom the refresh token is generated
-     * @return Generated refresh token
+     * @return Generated refresh token, with its identifier and expiry
      */
-    public String generateRefreshToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails, refreshExpiration);
-    }
-
-    private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
-        return buildToken(extraClaims, userDetails, expiration);
+    public IssuedToken generateRefreshToken(UserDetails userDetails) {
+        return buildToken(new HashMap<>(), userDetails, VerifiedToken.REFRESH, refreshExpiration);
     }
 
-    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+    private IssuedToken buildToken(Map<String, Object> extraClaims, UserDetails userDetails, String tokenUse, long expiration) {
         List<String> roles = userDetails.getAuthorities()
                 .stream()
                 .map(GrantedAuthority::getAuthority)
@@ -102,16 +173,22 @@ public class JwtServiceImpl implements JwtService {
                 .map(GrantedAuthority::getAuthority)
                 .filter(authority -> !authority.startsWith("ROLE_"))
                 .collect(Collectors.toList());
-        return Jwts
+        String jti = UUID.randomUUID().toString();
+        long issuedAt = System.currentTimeMillis();
+        JwtBuilder builder = Jwts
                 .builder()
                 .setClaims(extraClaims)
+                .setId(jti)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(issuedAt + expiration))
                 .claim("roles", roles)
                 .claim("permissions", permissions)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .claim(VerifiedToken.TOKEN_USE, tokenUse);
+        if (userDetails instanceof User user && user.getId() != null)
+            builder.claim("uid", user.getId().toString());
+        // The expiry claim is stored in seconds, so the stored expiry is truncated alike.
+        return new IssuedToken(keyRing.sign(builder).compact(), jti, Instant.ofEpochSecond((issuedAt + expiration) / 1000));
     }
 
     /**
@@ -122,35 +199,76 @@ public class JwtServiceImpl implements JwtService {
      * @return True if the token is valid, false otherwise
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        var isTokenValid = tokenRepository.findByToken(token)
-                .map(t -> !t.isExpired() && !t.isRevoked())
-                .orElse(false);
+        VerifiedToken verified = verify(token);
+        return verified.getSubject().equals(userDetails.getUsername()) && isTokenValid(verified);
+    }
+
+    /**
+     * Validates whether an already verified JWT token is neither expired nor revoked, without
+     * reaching the database. Tokens issued without a {@code jti} claim cannot be revoked, so they
+     * are never valid.
+     *
+     * @param verified The verified claims of the token
+     * @return True if the token is valid, false otherwise
+     */
+    public boolean isTokenValid(VerifiedToken verified) {
+        return verified.getId() != null && !verified.isExpired() && !revocations.isRevoked(verified.getId());
+    }
 
-        return (username.equals(userDetails.getUsername()))
-                && !isTokenExpired(token)
-                && isTokenValid;
+    /**
+     * Revokes the given tokens on every node.
+     *
+     * @param tokens Tokens to revoke
+     * @return True if the revocation reached every node, false if only this node rejects them
+     */
+    public boolean revoke(Collection<Token> tokens) {
+        return revocations.revoke(expiryOf(tokens));
     }
 
-    public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Loads the revoked tokens that are not expired yet, for this node to reject them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        revocations.revokeLocally(expiryOf(tokenRepository.findAllByRevokedTrueAndExpiresAtAfter(Instant.now())));
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Deletes the stored tokens that are expired. Expired tokens are rejected whatever their
+     * revocation, so they are no longer needed.
+     * <p>
+     * The purge only runs on its own when scheduling is enabled, by setting
+     * {@code spring.scheduler.enabled}, which is unset by default: it then runs on the
+     * {@code application.security.jwt.purge-cron} schedule, hourly unless configured otherwise.
+     * Without it, expired tokens stay stored until this method is called.
+     * </p>
+     */
+    @Transactional
+    @Scheduled(cron = "${application.security.jwt.purge-cron:0 0 * * * *}")
+    public void purgeExpiredTokens() {
+        int purged = tokenRepository.deleteAllByExpiresAtBefore(Instant.now());
+        if (purged > 0)
+            log.info("Purged {} expired tokens", purged);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static Map<String, Instant> expiryOf(Collection<Token> tokens) {
+        Map<String, Instant> expiry = new HashMap<>();
+        for (Token token : tokens)
+            if (token.getJti() != null && token.getExpiresAt() != null)
+                expiry.put(token.getJti(), token.getExpiresAt());
+        return expiry;
+    }
+
+    public boolean isTokenExpired(String token) {
+        return verify(token).isExpired();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-}
\ No newline at end of file
+}
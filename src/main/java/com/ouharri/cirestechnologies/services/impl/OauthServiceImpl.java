@@ -13,6 +13,7 @@ import com.ouharri.cirestechnologies.model.entities.User;
 import com.ouharri.cirestechnologies.model.enums.Role;
 import com.ouharri.cirestechnologies.model.enums.UserStatus;
 import com.ouharri.cirestechnologies.repositories.UserRepository;
+import com.ouharri.cirestechnologies.security.IssuedToken;
 import com.ouharri.cirestechnologies.services.spec.JwtService;
 import com.ouharri.cirestechnologies.services.spec.OauthService;
 import com.ouharri.cirestechnologies.services.spec.UserService;
@@ -200,19 +201,22 @@ public class OauthServiceImpl implements OauthService {
 
     /**
      * Generates and builds an AuthenticationResponse for the specified user.
+     * As on a login, a revocation of the former tokens that cannot be published is only logged.
      *
      * @param user The User entity for whom the authentication response is to be generated.
      * @return AuthenticationResponse containing access and refresh tokens.
      */
     private AuthenticationResponse createAuthenticationResponse(User user) {
-        String jwtToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
-        userService.revokeAllUserTokens(user);
+        IssuedToken jwtToken = jwtService.generateToken(user);
+        IssuedToken refreshToken = jwtService.generateRefreshToken(user);
+        if (!userService.revokeAllUserTokens(user))
+            log.warn("Former tokens of user {} revoked on this node only", user.getEmail());
         userService.saveUserToken(user, jwtToken);
+        userService.saveUserToken(user, refreshToken);
         log.info("Generated and saved tokens for user: {}", user.getEmail());
         return AuthenticationResponse.builder()
-                .accessToken(jwtToken)
-                .refreshToken(refreshToken)
+                .accessToken(jwtToken.token())
+                .refreshToken(refreshToken.token())
                 .build();
     }
 }
@@ -1,12 +1,16 @@
 package com.ouharri.cirestechnologies.services.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.javafaker.Faker;
-import com.github.javafaker.service.FakeValuesService;
 import com.ouharri.cirestechnologies.exceptions.NoAuthenticateUser;
 import com.ouharri.cirestechnologies.exceptions.ResourceNotCreatedException;
 import com.ouharri.cirestechnologies.exceptions.ResourceNotFoundException;
+import com.ouharri.cirestechnologies.exceptions.RevocationNotPublishedException;
+import com.ouharri.cirestechnologies.generator.UserGenerationScheduler;
+import com.ouharri.cirestechnologies.generator.UserPool;
+import com.ouharri.cirestechnologies.generator.UserStreamReader;
+import com.ouharri.cirestechnologies.generator.UserStreamWriter;
+import com.ouharri.cirestechnologies.importer.ImportReceipts;
+import com.ouharri.cirestechnologies.importer.UserImportPipeline;
 import com.ouharri.cirestechnologies.mapper.UserMapper;
 import com.ouharri.cirestechnologies.model.dto.requests.ChangePasswordRequest;
 import com.ouharri.cirestechnologies.model.dto.requests.ChangeRoleRequest;
@@ -16,24 +20,23 @@ import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
 import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
 import com.ouharri.cirestechnologies.model.entities.Token;
 import com.ouharri.cirestechnologies.model.entities.User;
-import com.ouharri.cirestechnologies.model.enums.Gender;
-import com.ouharri.cirestechnologies.model.enums.Role;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
 import com.ouharri.cirestechnologies.model.enums.TokenType;
 import com.ouharri.cirestechnologies.model.enums.UserStatus;
 import com.ouharri.cirestechnologies.repositories.TokenRepository;
 import com.ouharri.cirestechnologies.repositories.UserRepository;
+import com.ouharri.cirestechnologies.security.IssuedToken;
+import com.ouharri.cirestechnologies.security.TokenBulkRevoker;
+import com.ouharri.cirestechnologies.services.spec.JwtService;
 import com.ouharri.cirestechnologies.services.spec.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -43,15 +46,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.Principal;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service class for managing user-related operations.
@@ -68,14 +73,18 @@ import java.util.stream.IntStream;
 @RequiredArgsConstructor
 @CacheConfig(cacheNames = "Users")
 public class UserServiceImpl extends _ServiceImp<UUID, UserRequest, UserResponses, User, UserRepository, UserMapper> implements UserService {
-    private final Faker faker;
-    private final Random random;
+    private static final int SPOOL_BUFFER_SIZE = 1 << 16;
+
     private final ModelMapper modelMapper;
-    private final FakeValuesService fakeValuesService;
+    private final ObjectMapper objectMapper;
+    private final UserGenerationScheduler generationScheduler;
+    private final UserPool userPool;
+    private final UserImportPipeline importPipeline;
+    private final ImportReceipts importReceipts;
     private final PasswordEncoder passwordEncoder;
     private final TokenRepository tokenRepository;
-
-    ExecutorService executor = Executors.newFixedThreadPool(10);
+    private final TokenBulkRevoker tokenRevoker;
+    private final JwtService jwtService;
 
     /**
      * Saves a user to the database.
@@ -127,154 +136,215 @@ public class UserServiceImpl extends _ServiceImp<UUID, UserRequest, UserResponse
     }
 
     /**
-     * Asynchronously generates a batch of users.
+     * Generates users for the given seed.
+     * The same seed and count always produce the same users, whatever the database holds, so
+     * their identifiers may clash with existing users.
      *
      * @param count The number of users to generate.
-     * @return A CompletableFuture containing the list of generated users.
+     * @param seed  The seed of the generation.
+     * @return The list of generated users.
+     * @see UserGenerationScheduler
      */
-    @Cacheable(
-            key = "#count",
-            sync = true
-    )
-    public List<UserGeneratedResponses> generateUsers(int count) {
-        int batchSize = 1000;
-        int numThreads = Math.max(1, Math.min(count / batchSize, Runtime.getRuntime().availableProcessors()));
-
-        List<CompletableFuture<List<UserGeneratedResponses>>> futures = IntStream.range(0, count)
-                .boxed()
-                .collect(Collectors.groupingByConcurrent(i -> i % numThreads))
-                .values()
-                .parallelStream()
-                .map(batch -> CompletableFuture.supplyAsync(() -> generateBatch(batch), executor))
-                .toList();
-
+    public List<UserGeneratedResponses> generateUsers(int count, long seed) {
         try {
-            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                    .thenApplyAsync(
-                            v -> futures.parallelStream()
-                                    .flatMap(future -> future.join().stream())
-                                    .collect(Collectors.toList()),
-                            executor
-                    ).get();
-        } catch (InterruptedException | ExecutionException e) {
+            return generationScheduler.generate(count, seed);
+        } catch (CompletionException e) {
             log.error("Error generating users", e);
             throw new ResourceNotCreatedException("Error generating users");
         }
     }
 
     /**
-     * Génère un lot d'utilisateurs.
+     * Generates users and writes them to the given stream as they are produced.
+     * <p>
+     * Each generated chunk is written and flushed to the client as soon as it is ready, while
+     * the next chunks are generated, so heap usage depends on the chunk size and not on
+     * {@code count}. The users are the same as the ones of {@link #generateUsers(int, long)}.
+     * </p>
+     *
+     * @param count  The number of users to generate.
+     * @param seed   The seed of the generation.
+     * @param format The output format.
+     * @param out    The stream to write the users to.
+     */
+    public void streamUsers(int count, long seed, GenerationFormat format, OutputStream out) {
+        try (UserStreamWriter writer = UserStreamWriter.open(format, out, objectMapper)) {
+            generationScheduler.stream(count, seed, chunkWriter(writer));
+        } catch (IOException | CompletionException e) {
+            log.error("Error streaming users", e);
+            throw new ResourceNotCreatedException("Error streaming users");
+        }
+    }
+
+    /**
+     * Streams users taken from the pre-generated pool.
+     * <p>
+     * Pooled users are only materialized while being written, so a hit costs no generation at
+     * all. On a miss, the users are generated on the fly from a random seed, avoiding the
+     * identifiers already in the database, as the pool does.
+     * </p>
      *
-     * @param batch La liste des index des utilisateurs à générer.
-     * @return Une liste d'utilisateurs générés.
+     * @param count  The number of users to stream.
+     * @param format The output format.
+     * @param out    The stream to write the users to.
+     * @see UserPool
      */
-    public List<UserGeneratedResponses> generateBatch(List<Integer> batch) {
-        return batch.parallelStream()
-                .map(i -> UserGeneratedResponses.builder()
-                        .firstname(faker.name().firstName())
-                        .lastname(faker.name().lastName())
-                        .birthDate(faker.date().birthday())
-                        .city(faker.address().city())
-                        .country(faker.address().country())
-                        .avatar(faker.avatar().image())
-                        .company(faker.company().name())
-                        .jobPosition(faker.job().position())
-                        .mobile(faker.phoneNumber().phoneNumber())
-                        .username(fakeValuesService.bothify("????##"))
-                        .email(faker.internet().emailAddress())
-                        .password(faker.internet().password(6, 10))
-                        .role(random.nextBoolean() ? Role.ROLE : Role.ADMIN)
-                        .gender(random.nextBoolean() ? Gender.MALE : Gender.FEMALE)
-                        .build()
-                )
-                .collect(Collectors.toList());
+    public void streamPooledUsers(int count, GenerationFormat format, OutputStream out) {
+        try (UserStreamWriter writer = UserStreamWriter.open(format, out, objectMapper)) {
+            UserGenerationScheduler.ChunkConsumer consumer = chunkWriter(writer);
+            if (!userPool.serve(count, consumer))
+                generationScheduler.streamAvoidingExisting(count, ThreadLocalRandom.current().nextLong(), consumer);
+        } catch (IOException | CompletionException e) {
+            log.error("Error streaming users", e);
+            throw new ResourceNotCreatedException("Error streaming users");
+        }
+    }
+
+    private static UserGenerationScheduler.ChunkConsumer chunkWriter(UserStreamWriter writer) {
+        return users -> {
+            for (UserGeneratedResponses user : users)
+                writer.write(user);
+            writer.flush();
+        };
     }
 
     /**
-     * Charge et traite de manière asynchrone un lot d'utilisateurs à partir d'un fichier.
+     * Charge et traite un lot d'utilisateurs à partir d'un fichier JSON, NDJSON, CSV ou binaire.
+     * <p>
+     * Le fichier est lu en flux et importé par lots, sans jamais être chargé en entier en mémoire.
+     * Son empreinte SHA-256 est calculée pendant sa copie sur le disque local, d'où il est ensuite
+     * lu, avant l'importation : un fichier déjà importé, ou en cours d'importation par une autre
+     * requête, dont la fin est alors attendue, n'est pas importé de nouveau, et le résumé de sa
+     * première importation est renvoyé.
+     * </p>
      *
      * @param file Le fichier contenant les données des utilisateurs.
      * @return Un objet représentant le résumé de l'importation.
+     * @see UserImportPipeline
+     * @see ImportReceipts
      */
-    @Transactional
-    @Cacheable(
-            key = "#file.bytes",
-            sync = true
-    )
     public UploadSummaryResponseDTO uploadBatch(MultipartFile file) {
         try {
-            List<UserResponses> users = new ObjectMapper().readValue(file.getInputStream(), new TypeReference<>() {
-            });
-
-            int batchSize = 100;
-            int totalRecords = users.size();
-            AtomicInteger successfullyImported = new AtomicInteger();
-
-            IntStream.range(0, totalRecords)
-                    .boxed()
-                    .collect(Collectors.groupingBy(i -> i / batchSize))
-                    .values()
-                    .parallelStream()
-                    .forEach(batchIndexes -> {
-                        List<UserResponses> batch = batchIndexes.stream()
-                                .map(users::get)
-                                .toList();
-
-                        Set<String> emailsToImport = batch.parallelStream().map(UserResponses::getEmail).collect(Collectors.toSet());
-                        Set<String> usernamesToImport = batch.parallelStream().map(UserResponses::getUsername).collect(Collectors.toSet());
-
-                        Set<String> existingEmails = repository.findAllByEmailIn(emailsToImport).parallelStream().map(User::getEmail).collect(Collectors.toSet());
-                        Set<String> existingUsernames = repository.findAllByUsernameIn(usernamesToImport).parallelStream().map(User::getUsername).collect(Collectors.toSet());
-
-                        List<User> usersToSave = batch.parallelStream()
-                                .filter(user -> !existingEmails.contains(user.getEmail()) && !existingUsernames.contains(user.getUsername()))
-                                .map(userResponse -> {
-                                    User user = mapper.toEntityFromResponse(userResponse);
-                                    user.setEnabled(true);
-                                    user.setAccountNonLocked(true);
-                                    user.setPassword(passwordEncoder.encode(user.getPassword()));
-                                    return user;
-                                })
-                                .collect(Collectors.toList());
+            GenerationFormat format = GenerationFormat.fromUpload(file.getContentType(), file.getOriginalFilename());
+            Path spooled = Files.createTempFile("import-", "." + format.getExtension());
+            try {
+                String digest = spool(file, spooled);
+                Optional<UploadSummaryResponseDTO> previous = importReceipts.claim(digest);
+                if (previous.isPresent())
+                    return previous.get();
+
+                UploadSummaryResponseDTO summary;
+                try (UserStreamReader reader = openSpooled(format, spooled)) {
+                    summary = importPipeline.importUsers(reader);
+                } catch (IOException | RuntimeException e) {
+                    importReceipts.release(digest);
+                    throw e;
+                }
+                importReceipts.complete(digest, summary);
+                return summary;
+            } finally {
+                Files.deleteIfExists(spooled);
+            }
+        } catch (Exception e) {
+            throw new ResourceNotCreatedException(e.getMessage());
+        }
+    }
 
+    /**
+     * Imports a batch of users from a JSON, NDJSON, CSV or binary file, writing the outcome of
+     * each record to the given stream as newline-delimited JSON while the import runs.
+     * <p>
+     * If the stream fails, the client is gone: the import stops after the batches in flight.
+     * A file already imported, or being imported by another request, whose end is then waited
+     * for, is not imported again: the replayed summary of its first import is written instead, as
+     * a single line.
+     * </p>
+     *
+     * @param file The file containing user data.
+     * @param out  The stream to write the outcomes to.
+     * @return The summary of the import.
+     * @see UserImportPipeline
+     * @see ImportReceipts
+     */
+    public UploadSummaryResponseDTO uploadBatch(MultipartFile file, OutputStream out) {
+        try {
+            GenerationFormat format = GenerationFormat.fromUpload(file.getContentType(), file.getOriginalFilename());
+            Path spooled = Files.createTempFile("import-", "." + format.getExtension());
+            try {
+                String digest = spool(file, spooled);
+                Optional<UploadSummaryResponseDTO> previous = importReceipts.claim(digest);
+                if (previous.isPresent()) {
+                    out.write(objectMapper.writeValueAsBytes(previous.get()));
+                    out.write('\n');
+                    out.flush();
+                    return previous.get();
+                }
+
+                UploadSummaryResponseDTO summary;
+                try (UserStreamReader reader = openSpooled(format, spooled)) {
+                    summary = importPipeline.importUsers(reader, outcome -> {
                         try {
-                            List<User> savedUsers = repository.saveAll(usersToSave);
-                            successfullyImported.addAndGet(savedUsers.size());
-                        } catch (DataIntegrityViolationException e) {
-                            log.info("user whit email or userName already exist");
+                            byte[] line = objectMapper.writeValueAsBytes(outcome);
+                            synchronized (out) {
+                                out.write(line);
+                                out.write('\n');
+                                out.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
                         }
                     });
-
-            int failedToImport = totalRecords - successfullyImported.get();
-
-            return UploadSummaryResponseDTO.builder()
-                    .totalRecords(totalRecords)
-                    .successfullyImported(successfullyImported.get())
-                    .failedToImport(failedToImport)
-                    .build();
+                } catch (IOException | RuntimeException e) {
+                    importReceipts.release(digest);
+                    throw e;
+                }
+                importReceipts.complete(digest, summary);
+                return summary;
+            } finally {
+                Files.deleteIfExists(spooled);
+            }
         } catch (Exception e) {
             throw new ResourceNotCreatedException(e.getMessage());
         }
     }
 
     /**
-     * Changes the role of a user.
+     * Spools an upload to a local file, digesting it on the way, so that it is read only once.
+     */
+    private static String spool(MultipartFile file, Path target) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ImportReceipts.spool(in, target);
+        }
+    }
+
+    private UserStreamReader openSpooled(GenerationFormat format, Path spooled) throws IOException {
+        return UserStreamReader.open(format, new BufferedInputStream(Files.newInputStream(spooled), SPOOL_BUFFER_SIZE), objectMapper);
+    }
+
+    /**
+     * Changes the role of a user, and revokes its tokens, which carry the former role, so that
+     * the user authenticates again to get the new one.
      *
      * @param changeRoleRequest The request containing the user and the new role.
      * @return The updated user response.
-     * @throws ResourceNotFoundException   If the user is not found.
-     * @throws ResourceNotCreatedException If the user's role cannot be updated.
+     * @throws ResourceNotFoundException        If the user is not found.
+     * @throws ResourceNotCreatedException      If the user's role cannot be updated.
+     * @throws RevocationNotPublishedException If the role changed but other nodes still accept the former tokens.
      */
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public UserResponses changeRole(ChangeRoleRequest changeRoleRequest) {
+        User saved;
         try {
             User user = mapper.toEntityFromResponse(changeRoleRequest.user());
             user = this.findByEmail(user.getEmail());
             user.setRole(changeRoleRequest.role());
-            return mapper.toResponse(repository.save(user));
+            saved = repository.save(user);
         } catch (Exception e) {
             throw new ResourceNotCreatedException("User Role not updated");
         }
+        if (!revokeAllUserTokens(saved))
+            throw new RevocationNotPublishedException();
+        return mapper.toResponse(saved);
     }
 
     /**
@@ -340,7 +410,7 @@ public class UserServiceImpl extends _ServiceImp<UUID, UserRequest, UserResponse
      * @throws IllegalStateException If the current password is incorrect, or if the new passwords do not match.
      */
     public void changePassword(ChangePasswordRequest request, Principal connectedUser) {
-        var user = (User) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal();
+        var user = findByUsername(connectedUser.getName());
 
         if (!passwordEncoder.matches(request.currentPassword(), user.getPassword())) {
             throw new IllegalStateException("Wrong password");
@@ -368,15 +438,16 @@ public class UserServiceImpl extends _ServiceImp<UUID, UserRequest, UserResponse
     }
 
     /**
-     * Saves a new user token to the database.
+     * Saves a new user token to the database, by its {@code jti} claim and its expiry.
      *
      * @param user     User for whom the token is generated
-     * @param jwtToken JWT token to be saved
+     * @param jwtToken JWT token to be saved, as issued
      */
-    public void saveUserToken(User user, String jwtToken) {
+    public void saveUserToken(User user, IssuedToken jwtToken) {
         var token = Token.builder()
                 .user(user)
-                .token(jwtToken)
+                .jti(jwtToken.jti())
+                .expiresAt(jwtToken.expiresAt())
                 .tokenType(TokenType.BEARER)
                 .expired(false)
                 .revoked(false)
@@ -385,18 +456,15 @@ public class UserServiceImpl extends _ServiceImp<UUID, UserRequest, UserResponse
     }
 
     /**
-     * Revokes all valid tokens for a user by marking them as expired and revoked.
+     * Revokes all valid tokens for a user by marking them as expired and revoked, and rejects them
+     * on every node from now on. The {@link TokenBulkRevoker} reports the tokens it revoked, so
+     * exactly those are published, whatever tokens are saved concurrently.
      *
      * @param user User for whom tokens are revoked
+     * @return True if the revocation reached every node, false if only this node rejects the tokens
      */
-    public void revokeAllUserTokens(User user) {
-        var validUserTokens = tokenRepository.findAllValidTokenByUser(user.getId());
-        if (!validUserTokens.isEmpty()) {
-            validUserTokens.forEach(token -> {
-                token.setExpired(true);
-                token.setRevoked(true);
-            });
-            tokenRepository.saveAll(validUserTokens);
-        }
+    @Transactional
+    public boolean revokeAllUserTokens(User user) {
+        return jwtService.revoke(tokenRevoker.revokeAllByUser(user.getId()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.ouharri.cirestechnologies.services.spec;
+
+import com.ouharri.cirestechnologies.model.dto.responses.BatchImportResponse;
+
+/**
+ * Interface for the Spring Batch import of newline-delimited JSON files of users dropped in the
+ * import directory of the server.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public interface BatchImportService {
+
+    /**
+     * Launches the import of a file of the import directory, or restarts it if it failed.
+     *
+     * @param fileName The name of the file in the import directory.
+     * @return The state of the launched execution.
+     */
+    BatchImportResponse launch(String fileName);
+
+    /**
+     * Retrieves the state and progress of an execution of the import job.
+     *
+     * @param id The identifier of the execution.
+     * @return The state of the execution.
+     */
+    BatchImportResponse getExecution(long id);
+}
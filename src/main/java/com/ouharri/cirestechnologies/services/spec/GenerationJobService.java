@@ -0,0 +1,39 @@
+package com.ouharri.cirestechnologies.services.spec;
+
+import com.ouharri.cirestechnologies.model.dto.requests.GenerationJobRequest;
+import com.ouharri.cirestechnologies.model.dto.responses.GenerationJobResponse;
+import org.springframework.core.io.Resource;
+
+import java.util.UUID;
+
+/**
+ * Interface for asynchronous user generation jobs, spooled to local disk.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public interface GenerationJobService {
+
+    /**
+     * Submits a generation job.
+     *
+     * @param request The count, format, seed and compression level of the file to generate.
+     * @return The state of the submitted job.
+     */
+    GenerationJobResponse submit(GenerationJobRequest request);
+
+    /**
+     * Retrieves the state and progress of a generation job.
+     *
+     * @param id The identifier of the job.
+     * @return The state of the job.
+     */
+    GenerationJobResponse getJob(UUID id);
+
+    /**
+     * Retrieves the file of a completed generation job.
+     *
+     * @param id The identifier of the job.
+     * @return The generated file.
+     */
+    Resource getFile(UUID id);
+}
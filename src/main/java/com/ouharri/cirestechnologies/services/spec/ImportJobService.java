@@ -0,0 +1,32 @@
+package com.ouharri.cirestechnologies.services.spec;
+
+import com.ouharri.cirestechnologies.model.dto.responses.ImportJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * Interface for asynchronous user import jobs, spooled to local disk.
+ *
+ * @author <a href="mailto:ouharrioutman@gmail.com">Ouharri Outman</a>
+ */
+public interface ImportJobService {
+
+    /**
+     * Spools the file and submits its import.
+     *
+     * @param file      The multipart file containing user data.
+     * @param principal The user submitting the job, to push its progress to, if authenticated.
+     * @return The state of the submitted job.
+     */
+    ImportJobResponse submit(MultipartFile file, Principal principal);
+
+    /**
+     * Retrieves the state and progress of an import job.
+     *
+     * @param id The identifier of the job.
+     * @return The state of the job.
+     */
+    ImportJobResponse getJob(UUID id);
+}
@@ -1,8 +1,12 @@
 package com.ouharri.cirestechnologies.services.spec;
 
+import com.ouharri.cirestechnologies.model.entities.Token;
+import com.ouharri.cirestechnologies.security.IssuedToken;
+import com.ouharri.cirestechnologies.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -13,6 +17,14 @@ import java.util.function.Function;
  * @author <a href="mailto:ouharri.outman@gmail.com">ouharri</a>
  */
 public interface JwtService {
+    /**
+     * Verifies a JWT token and parses its claims once, for every later check to reuse.
+     *
+     * @param token JWT token to verify.
+     * @return The verified claims of the token.
+     */
+    VerifiedToken verify(String token);
+
     /**
      * Extracts the username from a given JWT token.
      *
@@ -35,26 +47,26 @@ public interface JwtService {
      * Generates a JWT token based on the user's details.
      *
      * @param userDetails The user details for which to generate the token.
-     * @return The generated JWT token.
+     * @return The generated JWT token, with its identifier and expiry.
      */
-    String generateToken(UserDetails userDetails);
+    IssuedToken generateToken(UserDetails userDetails);
 
     /**
      * Generates a JWT token with additional claims.
      *
      * @param extraClaims Additional claims to be included in the token.
      * @param userDetails The user details for which to generate the token.
-     * @return The generated JWT token.
+     * @return The generated JWT token, with its identifier and expiry.
      */
-    String generateToken(Map<String, Object> extraClaims, UserDetails userDetails);
+    IssuedToken generateToken(Map<String, Object> extraClaims, UserDetails userDetails);
 
     /**
      * Generates a refresh token for a user.
      *
      * @param userDetails The user details for which to generate the refresh token.
-     * @return The generated refresh token.
+     * @return The generated refresh token, with its identifier and expiry.
      */
-    String generateRefreshToken(UserDetails userDetails);
+    IssuedToken generateRefreshToken(UserDetails userDetails);
 
     /**
      * Validates a JWT token against user details.
@@ -65,6 +77,27 @@ public interface JwtService {
      */
     boolean isTokenValid(String token, UserDetails userDetails);
 
+    /**
+     * Validates that an already verified JWT token is neither expired nor revoked.
+     *
+     * @param verified The verified claims of the token.
+     * @return True if the token is valid, otherwise false.
+     */
+    boolean isTokenValid(VerifiedToken verified);
+
+    /**
+     * Revokes JWT tokens on every node of the application.
+     *
+     * @param tokens The stored tokens to revoke.
+     * @return True if the revocation reached every node, false if only this node rejects them.
+     */
+    boolean revoke(Collection<Token> tokens);
+
+    /**
+     * Deletes the stored tokens that are expired, on a schedule when {@code spring.scheduler.enabled} is set.
+     */
+    void purgeExpiredTokens();
+
     /**
      * Checks if a JWT token is expired.
      *
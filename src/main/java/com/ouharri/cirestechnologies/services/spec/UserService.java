@@ -7,9 +7,12 @@ import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDT
 import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
 import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
 import com.ouharri.cirestechnologies.model.entities.User;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.security.IssuedToken;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.OutputStream;
 import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
@@ -53,20 +56,35 @@ public interface UserService extends _Service<UUID, UserRequest, UserResponses>
     UserGeneratedResponses getCurrentUser();
 
     /**
-     * Generates a specified number of users asynchronously.
+     * Generates a specified number of users.
+     * The same count and seed always produce the same users.
      *
      * @param count The number of users to generate.
-     * @return A CompletableFuture containing a list of generated users.
+     * @param seed  The seed of the generation.
+     * @return A list of generated users.
      */
-    List<UserGeneratedResponses> generateUsers(int count);
+    List<UserGeneratedResponses> generateUsers(int count, long seed);
 
     /**
-     * Generates users for the specified batch.
+     * Generates users and streams them to the given output stream as they are produced.
+     * The same count and seed always produce the same users.
      *
-     * @param batch The batch of user indices to generate.
-     * @return A list of generated users.
+     * @param count  The number of users to generate.
+     * @param seed   The seed of the generation.
+     * @param format The output format.
+     * @param out    The stream to write the users to.
+     */
+    void streamUsers(int count, long seed, GenerationFormat format, OutputStream out);
+
+    /**
+     * Streams users taken from the pre-generated pool to the given output stream.
+     * Falls back to a randomly seeded generation when the pool holds too few users.
+     *
+     * @param count  The number of users to stream.
+     * @param format The output format.
+     * @param out    The stream to write the users to.
      */
-    List<UserGeneratedResponses> generateBatch(List<Integer> batch);
+    void streamPooledUsers(int count, GenerationFormat format, OutputStream out);
 
     /**
      * Uploads a batch of users from a multipart file asynchronously.
@@ -76,6 +94,15 @@ public interface UserService extends _Service<UUID, UserRequest, UserResponses>
      */
     UploadSummaryResponseDTO uploadBatch(MultipartFile file);
 
+    /**
+     * Uploads a batch of users from a multipart file, streaming the outcome of each record.
+     *
+     * @param file The multipart file containing user data.
+     * @param out  The stream to write the outcomes to, as newline-delimited JSON.
+     * @return The summary of the import.
+     */
+    UploadSummaryResponseDTO uploadBatch(MultipartFile file, OutputStream out);
+
     /**
      * Saves a user to the database.
      *
@@ -104,16 +131,17 @@ public interface UserService extends _Service<UUID, UserRequest, UserResponses>
      * Revokes all valid tokens for a user by marking them as expired and revoked.
      *
      * @param user User for whom tokens are revoked.
+     * @return True if the revocation reached every node, false if only this node rejects the tokens.
      */
-    void revokeAllUserTokens(User user);
+    boolean revokeAllUserTokens(User user);
 
     /**
      * Saves a new user token to the database.
      *
      * @param user     User for whom the token is generated.
-     * @param jwtToken JWT token to be saved.
+     * @param jwtToken JWT token to be saved, as issued.
      */
-    void saveUserToken(User user, String jwtToken);
+    void saveUserToken(User user, IssuedToken jwtToken);
 
     /**
      * Updates the status of the specified user to offline.
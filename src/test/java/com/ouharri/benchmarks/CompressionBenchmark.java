@@ -0,0 +1,129 @@
+package com.ouharri.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.core.ExecutorConfig;
+import com.ouharri.cirestechnologies.generator.UserGenerationScheduler;
+import com.ouharri.cirestechnologies.generator.UserGeneratorEngine;
+import com.ouharri.cirestechnologies.generator.UserIdentifierIndex;
+import com.ouharri.cirestechnologies.generator.UserStreamWriter;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.enums.GenerationCompression;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of streaming 200k generated users through each compression and level, as the
+ * {@code generate} endpoint does, chunk by chunk with a flush after every chunk.
+ * <p>
+ * The score is the CPU time to serialize and compress the file. The {@code wireBytes} counter
+ * is the size of the response body, and {@code downloadMillis} the end-to-end download time
+ * over a link of {@code bandwidthMbps}: since compression and transfer overlap, it is the
+ * longer of the two.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"NONE:0", "GZIP:1", "GZIP:6", "GZIP:9", "ZSTD:1", "ZSTD:3", "ZSTD:9", "ZSTD:19"})
+    private String compression;
+
+    @Param({"100"})
+    private int bandwidthMbps;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<UserGeneratedResponses[]> chunks;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CompressionBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    private static ThreadPoolTaskExecutor generationExecutor() {
+        ThreadPoolTaskExecutor executor = ExecutorConfig.boundedPool("user-generation-", Runtime.getRuntime().availableProcessors(), Duration.ZERO);
+        executor.initialize();
+        return executor;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        UserGenerationScheduler scheduler = new UserGenerationScheduler(
+                new UserGeneratorEngine(),
+                new UserIdentifierIndex(mock(UserRepository.class), mock(PlatformTransactionManager.class), Runnable::run, Duration.ofMinutes(10)),
+                generationExecutor()
+        );
+        List<UserGeneratedResponses[]> generated = new ArrayList<>();
+        scheduler.stream(200_000, 42L, generated::add);
+        chunks = generated;
+    }
+
+    @Benchmark
+    public void stream(Wire wire) throws IOException {
+        String[] parts = compression.split(":");
+        GenerationCompression algorithm = GenerationCompression.valueOf(parts[0]);
+        CountingOutputStream sink = new CountingOutputStream();
+        long start = System.nanoTime();
+
+        try (UserStreamWriter writer = UserStreamWriter.open(
+                GenerationFormat.JSON,
+                algorithm.wrap(sink, algorithm.level(Integer.valueOf(parts[1]))),
+                mapper
+        )) {
+            for (UserGeneratedResponses[] chunk : chunks) {
+                for (UserGeneratedResponses user : chunk)
+                    writer.write(user);
+                writer.flush();
+            }
+        }
+
+        long cpuMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long transferMillis = sink.count * 8 / (bandwidthMbps * 1000L);
+        wire.wireBytes = sink.count;
+        wire.downloadMillis = Math.max(cpuMillis, transferMillis);
+    }
+
+    /**
+     * Bytes and estimated download time of the last invocation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+        public long wireBytes;
+        public long downloadMillis;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ouharri.benchmarks;
+
+import com.ouharri.cirestechnologies.core.ExecutorConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a burst of concurrent I/O-bound requests, each blocking for
+ * {@code latencyMillis} as an SMTP exchange or a JDBC round trip would, on the former
+ * {@code newFixedThreadPool(10)}, a host-sized bounded pool and the virtual-thread
+ * {@code ioTaskExecutor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutorBenchmark {
+
+    @Param({"100", "1000"})
+    private int requests;
+
+    @Param({"5"})
+    private int latencyMillis;
+
+    @Param({"fixed10", "bounded", "virtual"})
+    private String strategy;
+
+    private Executor executor;
+    private Runnable shutdown;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExecutorBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setUp() {
+        switch (strategy) {
+            case "fixed10" -> {
+                ExecutorService pool = Executors.newFixedThreadPool(10);
+                executor = pool;
+                shutdown = pool::shutdownNow;
+            }
+            case "bounded" -> {
+                ThreadPoolTaskExecutor pool = ExecutorConfig.boundedPool("io-", Runtime.getRuntime().availableProcessors() * 2, Duration.ZERO);
+                pool.initialize();
+                executor = pool;
+                shutdown = pool::shutdown;
+            }
+            default -> {
+                SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("io-");
+                virtual.setVirtualThreads(true);
+                executor = virtual;
+                shutdown = virtual::close;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown.run();
+    }
+
+    /**
+     * One burst of {@code requests} blocking tasks, completed when all of them are done.
+     */
+    @Benchmark
+    public void burst() {
+        CompletableFuture<?>[] tasks = new CompletableFuture[requests];
+        for (int i = 0; i < requests; i++)
+            tasks[i] = CompletableFuture.runAsync(this::blockingCall, executor);
+        CompletableFuture.allOf(tasks).join();
+    }
+
+    private void blockingCall() {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
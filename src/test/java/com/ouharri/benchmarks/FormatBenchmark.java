@@ -0,0 +1,105 @@
+package com.ouharri.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.core.ExecutorConfig;
+import com.ouharri.cirestechnologies.generator.UserGenerationScheduler;
+import com.ouharri.cirestechnologies.generator.UserGeneratorEngine;
+import com.ouharri.cirestechnologies.generator.UserIdentifierIndex;
+import com.ouharri.cirestechnologies.generator.UserStreamReader;
+import com.ouharri.cirestechnologies.generator.UserStreamWriter;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Write and read throughput of each generation format on 50k generated users, and the size of
+ * the resulting file, reported by the {@code fileBytes} counter of {@code write}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatBenchmark {
+
+    private static final int COUNT = 50_000;
+
+    @Param({"JSON", "NDJSON", "CSV", "BINARY"})
+    private GenerationFormat format;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<UserGeneratedResponses> users;
+    private byte[] file;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FormatBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    private static ThreadPoolTaskExecutor generationExecutor() {
+        ThreadPoolTaskExecutor executor = ExecutorConfig.boundedPool("user-generation-", Runtime.getRuntime().availableProcessors(), Duration.ZERO);
+        executor.initialize();
+        return executor;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        users = new UserGenerationScheduler(
+                new UserGeneratorEngine(),
+                new UserIdentifierIndex(mock(UserRepository.class), mock(PlatformTransactionManager.class), Runnable::run, Duration.ofMinutes(10)),
+                generationExecutor()
+        ).generate(COUNT, 42L);
+        file = writeAll();
+    }
+
+    private byte[] writeAll() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(COUNT * 256);
+        try (UserStreamWriter writer = UserStreamWriter.open(format, out, mapper)) {
+            for (UserGeneratedResponses user : users)
+                writer.write(user);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public void write(Size size) throws IOException {
+        size.fileBytes = writeAll().length;
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws IOException {
+        try (UserStreamReader reader = UserStreamReader.open(format, new ByteArrayInputStream(file), mapper)) {
+            for (UserResponses user = reader.read(); user != null; user = reader.read())
+                blackhole.consume(user);
+        }
+    }
+
+    /**
+     * Size of the written file.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long fileBytes;
+    }
+}
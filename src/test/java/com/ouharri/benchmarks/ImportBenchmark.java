@@ -0,0 +1,126 @@
+package com.ouharri.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.core.ExecutorConfig;
+import com.ouharri.cirestechnologies.generator.UserGenerationScheduler;
+import com.ouharri.cirestechnologies.generator.UserGeneratorEngine;
+import com.ouharri.cirestechnologies.generator.UserIdentifierIndex;
+import com.ouharri.cirestechnologies.generator.UserStreamReader;
+import com.ouharri.cirestechnologies.generator.UserStreamWriter;
+import com.ouharri.cirestechnologies.importer.PasswordHasher;
+import com.ouharri.cirestechnologies.importer.UserBulkInserter;
+import com.ouharri.cirestechnologies.importer.UserImportPipeline;
+import com.ouharri.cirestechnologies.mapper.UserMapper;
+import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDTO;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput, in users per second, of the import pipeline on an NDJSON file of generated users
+ * against the BCrypt cost factor of imports. The repository and the inserter are mocked, so the
+ * figures are those of the parsing and hashing stages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ImportBenchmark {
+
+    private static final int COUNT = 200;
+
+    @Param({"4", "6", "8", "10"})
+    private int strength;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private ThreadPoolTaskExecutor hashingExecutor;
+    private SimpleAsyncTaskExecutor ioExecutor;
+    private UserImportPipeline pipeline;
+    private byte[] file;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImportBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        ThreadPoolTaskExecutor generationExecutor = ExecutorConfig.boundedPool("user-generation-", Runtime.getRuntime().availableProcessors(), Duration.ZERO);
+        generationExecutor.initialize();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserStreamWriter writer = UserStreamWriter.open(GenerationFormat.NDJSON, out, mapper)) {
+            for (UserGeneratedResponses user : new UserGenerationScheduler(
+                    new UserGeneratorEngine(),
+                    new UserIdentifierIndex(mock(UserRepository.class), mock(PlatformTransactionManager.class), Runnable::run, Duration.ofMinutes(10)),
+                    generationExecutor
+            ).generate(COUNT, 42L))
+                writer.write(user);
+        }
+        generationExecutor.shutdown();
+        file = out.toByteArray();
+
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findIdentifiers(anyCollection(), anyCollection())).thenReturn(List.of());
+        UserBulkInserter inserter = mock(UserBulkInserter.class);
+        when(inserter.insert(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        hashingExecutor = ExecutorConfig.boundedPool("password-hashing-", Runtime.getRuntime().availableProcessors(), Duration.ZERO);
+        hashingExecutor.initialize();
+        ioExecutor = new SimpleAsyncTaskExecutor("io-");
+        ioExecutor.setVirtualThreads(true);
+        pipeline = new UserImportPipeline(
+                repository,
+                Mappers.getMapper(UserMapper.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new PasswordHasher(new BCryptPasswordEncoder(), hashingExecutor, new SimpleMeterRegistry(), strength),
+                inserter,
+                mock(PlatformTransactionManager.class),
+                ioExecutor,
+                20,
+                20,
+                4,
+                3
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        hashingExecutor.shutdown();
+        ioExecutor.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public UploadSummaryResponseDTO importUsers() throws IOException {
+        try (UserStreamReader reader = UserStreamReader.open(GenerationFormat.NDJSON, new ByteArrayInputStream(file), mapper)) {
+            return pipeline.importUsers(reader);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ouharri.benchmarks;
+
+import com.ouharri.cirestechnologies.generator.UserGeneratorEngine;
+import com.ouharri.cirestechnologies.generator.UserIdentifierIndex;
+import com.ouharri.cirestechnologies.importer.UserBulkInserter;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.entities.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Insert throughput, in rows per second, of {@link UserBulkInserter} for 10k users:
+ * <ul>
+ *     <li>{@code row}, one auto-committed single-row insert per user, the round trips of
+ *     {@code saveAll};</li>
+ *     <li>{@code batch}, a single JDBC batch;</li>
+ *     <li>{@code copy}, {@code COPY ... FROM STDIN}, the same as {@code batch} on H2.</li>
+ * </ul>
+ * Runs against an in-memory H2 database. Add {@code -p database=h2,postgres} with the
+ * {@code benchmark.postgres.url}, {@code benchmark.postgres.user} and
+ * {@code benchmark.postgres.password} system properties to also run against a local PostgreSQL,
+ * whose {@code _user} table is dropped and recreated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+    private static final int COUNT = 10_000;
+
+    @Param({"h2"})
+    private String database;
+
+    @Param({"row", "batch", "copy"})
+    private String mode;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private UserBulkInserter inserter;
+    private List<User> users;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InsertBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setUp() {
+        dataSource = "postgres".equals(database)
+                ? new SingleConnectionDataSource(
+                System.getProperty("benchmark.postgres.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("benchmark.postgres.user", "postgres"),
+                System.getProperty("benchmark.postgres.password", "postgres"),
+                true)
+                : new SingleConnectionDataSource("jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS _user");
+        jdbcTemplate.execute("""
+                CREATE TABLE _user (
+                    id UUID PRIMARY KEY,
+                    created_at TIMESTAMP NOT NULL,
+                    updated_at TIMESTAMP,
+                    version BIGINT,
+                    firstname VARCHAR(255),
+                    lastname VARCHAR(255),
+                    birth_date DATE,
+                    city VARCHAR(255),
+                    country VARCHAR(255),
+                    avatar VARCHAR(255),
+                    company VARCHAR(255),
+                    job_position VARCHAR(255),
+                    mobile VARCHAR(255),
+                    username VARCHAR(255) UNIQUE,
+                    email VARCHAR(255) UNIQUE,
+                    password VARCHAR(255),
+                    gender VARCHAR(255),
+                    status VARCHAR(255),
+                    role VARCHAR(255),
+                    enabled BOOLEAN NOT NULL,
+                    account_non_locked BOOLEAN NOT NULL
+                )""");
+        inserter = new UserBulkInserter(jdbcTemplate, mock(UserIdentifierIndex.class), new SimpleMeterRegistry(), "copy".equals(mode));
+
+        UserGeneratorEngine engine = new UserGeneratorEngine();
+        SplittableRandom random = new SplittableRandom(42L);
+        users = new ArrayList<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            UserGeneratedResponses generated = engine.generate(i, random);
+            users.add(User.builder()
+                    .firstname(generated.getFirstname())
+                    .lastname(generated.getLastname())
+                    .birthDate(generated.getBirthDate())
+                    .city(generated.getCity())
+                    .country(generated.getCountry())
+                    .avatar(generated.getAvatar())
+                    .company(generated.getCompany())
+                    .jobPosition(generated.getJobPosition())
+                    .mobile(generated.getMobile())
+                    .username(generated.getUsername())
+                    .email(generated.getEmail())
+                    .password(generated.getPassword())
+                    .gender(generated.getGender())
+                    .status(generated.getStatus())
+                    .role(generated.getRole())
+                    .enabled(true)
+                    .accountNonLocked(true)
+                    .build());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE _user");
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS _user");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int insert() {
+        if (!"row".equals(mode))
+            return inserter.insert(users);
+
+        int inserted = 0;
+        for (User user : users)
+            inserted += inserter.insert(List.of(user));
+        return inserted;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ouharri.benchmarks;
+
+import com.ouharri.cirestechnologies.security.JwtKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens signed and verified per second, with the key decoded and the parser built on every call
+ * as {@code JwtServiceImpl} formerly did ({@code per-call}), and with the {@link JwtKeyRing} built
+ * once ({@code key-ring}). Verification bypasses the verified-claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final long EXPIRATION = 3_600_000L;
+
+    @Param({"per-call", "key-ring"})
+    private String setup;
+
+    private String secretKey;
+    private JwtKeyRing keyRing;
+    private String token;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setUp() {
+        secretKey = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+        keyRing = new JwtKeyRing("default", secretKey, "");
+        token = sign();
+    }
+
+    private Key getSignInKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    }
+
+    @Benchmark
+    public String sign() {
+        JwtBuilder builder = Jwts.builder()
+                .setSubject("user@mail.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .claim("roles", List.of("ROLE_USER"))
+                .claim("permissions", List.of("user:read"));
+        if ("per-call".equals(setup))
+            return builder.signWith(getSignInKey(), SignatureAlgorithm.HS256).compact();
+        return keyRing.sign(builder).compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        if ("per-call".equals(setup))
+            return Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        return keyRing.parse(token);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ouharri.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of looking a token up by its unique key, on a table of {@code rows} tokens:
+ * <ul>
+ *     <li>{@code token}, the former key, the full JWT in a {@code varchar(1000)} column;</li>
+ *     <li>{@code jti}, the {@code jti} claim of the JWT in a {@code varchar(36)} column.</li>
+ * </ul>
+ * On PostgreSQL, the size of the unique index is printed on setup. Runs against an in-memory H2
+ * database with 100k rows. Add {@code -p database=postgres -p rows=10000000} with the
+ * {@code benchmark.postgres.url}, {@code benchmark.postgres.user} and
+ * {@code benchmark.postgres.password} system properties to run against a local PostgreSQL at
+ * 10M rows, in a {@code token_benchmark} table which is dropped and recreated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenLookupBenchmark {
+
+    private static final int BATCH = 10_000;
+    private static final int PROBES = 1024;
+
+    @Param({"h2"})
+    private String database;
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"token", "jti"})
+    private String key;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private String[] probes;
+    private int next;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenLookupBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    public void setUp() {
+        dataSource = "postgres".equals(database)
+                ? new SingleConnectionDataSource(
+                System.getProperty("benchmark.postgres.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("benchmark.postgres.user", "postgres"),
+                System.getProperty("benchmark.postgres.password", "postgres"),
+                true)
+                : new SingleConnectionDataSource("jdbc:h2:mem:token-benchmark;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS token_benchmark");
+        jdbcTemplate.execute("token".equals(key)
+                ? "CREATE TABLE token_benchmark (id UUID PRIMARY KEY, token VARCHAR(1000) NOT NULL, revoked BOOLEAN NOT NULL, CONSTRAINT token_benchmark_key UNIQUE (token))"
+                : "CREATE TABLE token_benchmark (id UUID PRIMARY KEY, token VARCHAR(36) NOT NULL, revoked BOOLEAN NOT NULL, CONSTRAINT token_benchmark_key UNIQUE (token))");
+
+        SplittableRandom random = new SplittableRandom(42L);
+        int stride = Math.max(1, rows / PROBES);
+        probes = new String[PROBES];
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < rows; i++) {
+            String value = "token".equals(key) ? jwt(random) : UUID.randomUUID().toString();
+            if (i % stride == 0)
+                probes[(i / stride) % PROBES] = value;
+            batch.add(new Object[]{UUID.randomUUID(), value, false});
+            if (batch.size() == BATCH || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO token_benchmark (id, token, revoked) VALUES (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+
+        if ("postgres".equals(database)) {
+            jdbcTemplate.execute("ANALYZE token_benchmark");
+            System.out.println("Index size of " + key + ": " + jdbcTemplate.queryForObject(
+                    "SELECT pg_size_pretty(pg_relation_size('token_benchmark_key'))", String.class));
+        }
+    }
+
+    /**
+     * A random string of the length and alphabet of the JWTs of the application.
+     */
+    private static String jwt(SplittableRandom random) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        char[] token = new char[300];
+        for (int i = 0; i < token.length; i++)
+            token[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        token[36] = '.';
+        token[256] = '.';
+        return new String(token);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS token_benchmark");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public Boolean lookup() {
+        String probe = probes[next++ & (PROBES - 1)];
+        return jdbcTemplate.queryForObject("SELECT revoked FROM token_benchmark WHERE token = ?", Boolean.class, probe);
+    }
+}
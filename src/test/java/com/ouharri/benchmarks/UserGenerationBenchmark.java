@@ -0,0 +1,103 @@
+package com.ouharri.benchmarks;
+
+import com.ouharri.cirestechnologies.core.ExecutorConfig;
+import com.ouharri.cirestechnologies.generator.UserGenerationScheduler;
+import com.ouharri.cirestechnologies.generator.UserGeneratorEngine;
+import com.ouharri.cirestechnologies.generator.UserIdentifierIndex;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Latency of a whole {@code generateUsers} call with the former boxed
+ * {@code groupingByConcurrent} partitioning and nested parallel streams versus
+ * {@link UserGenerationScheduler}. Both use {@link UserGeneratorEngine}, so only the
+ * scheduling differs.
+ * <p>
+ * Add {@code -prof gc} or {@code -prof perfnorm} to the JMH options to compare allocation
+ * and CPU cycles per call as well.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserGenerationBenchmark {
+
+    @Param({"1000", "50000", "200000"})
+    private int count;
+
+    private UserGeneratorEngine engine;
+    private UserGenerationScheduler scheduler;
+    private ExecutorService executor;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserGenerationBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    private static ThreadPoolTaskExecutor generationExecutor() {
+        ThreadPoolTaskExecutor executor = ExecutorConfig.boundedPool("user-generation-", Runtime.getRuntime().availableProcessors(), Duration.ZERO);
+        executor.initialize();
+        return executor;
+    }
+
+    @Setup
+    public void setUp() {
+        engine = new UserGeneratorEngine();
+        scheduler = new UserGenerationScheduler(engine, new UserIdentifierIndex(mock(UserRepository.class), mock(PlatformTransactionManager.class), Runnable::run, Duration.ofMinutes(10)), generationExecutor());
+        executor = Executors.newFixedThreadPool(10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<UserGeneratedResponses> groupingByConcurrent() {
+        int numThreads = Math.max(1, Math.min(count / 1000, Runtime.getRuntime().availableProcessors()));
+
+        List<CompletableFuture<List<UserGeneratedResponses>>> futures = IntStream.range(0, count)
+                .boxed()
+                .collect(Collectors.groupingByConcurrent(i -> i % numThreads))
+                .values()
+                .parallelStream()
+                .map(batch -> CompletableFuture.supplyAsync(() -> batch.parallelStream()
+                        .map(i -> engine.generate(i, ThreadLocalRandom.current()))
+                        .collect(Collectors.toList()), executor))
+                .toList();
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(v -> futures.parallelStream()
+                        .flatMap(future -> future.join().stream())
+                        .collect(Collectors.toList()), executor)
+                .join();
+    }
+
+    @Benchmark
+    public List<UserGeneratedResponses> rangeScheduler() {
+        return scheduler.generate(count, 42L);
+    }
+}
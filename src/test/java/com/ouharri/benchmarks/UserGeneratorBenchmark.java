@@ -0,0 +1,82 @@
+package com.ouharri.benchmarks;
+
+import com.github.javafaker.Faker;
+import com.github.javafaker.service.FakeValuesService;
+import com.github.javafaker.service.RandomService;
+import com.ouharri.cirestechnologies.generator.UserGeneratorEngine;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.enums.Gender;
+import com.ouharri.cirestechnologies.model.enums.Role;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users generated per second by the per-field Faker calls formerly used in
+ * {@code generateBatch} versus {@link UserGeneratorEngine}.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ouharri.benchmarks.UserGeneratorBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserGeneratorBenchmark {
+
+    private Faker faker;
+    private FakeValuesService fakeValuesService;
+    private Random random;
+    private UserGeneratorEngine engine;
+    private long index;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserGeneratorBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup
+    @SuppressWarnings("deprecation")
+    public void setUp() {
+        faker = new Faker();
+        fakeValuesService = new FakeValuesService(new Locale("en-US"), new RandomService());
+        random = new Random();
+        engine = new UserGeneratorEngine();
+    }
+
+    @Benchmark
+    public UserGeneratedResponses faker() {
+        return UserGeneratedResponses.builder()
+                .firstname(faker.name().firstName())
+                .lastname(faker.name().lastName())
+                .birthDate(faker.date().birthday())
+                .city(faker.address().city())
+                .country(faker.address().country())
+                .avatar(faker.avatar().image())
+                .company(faker.company().name())
+                .jobPosition(faker.job().position())
+                .mobile(faker.phoneNumber().phoneNumber())
+                .username(fakeValuesService.bothify("????##"))
+                .email(faker.internet().emailAddress())
+                .password(faker.internet().password(6, 10))
+                .role(random.nextBoolean() ? Role.ROLE : Role.ADMIN)
+                .gender(random.nextBoolean() ? Gender.MALE : Gender.FEMALE)
+                .build();
+    }
+
+    @Benchmark
+    public UserGeneratedResponses engine() {
+        return engine.generate(index++, ThreadLocalRandom.current());
+    }
+}
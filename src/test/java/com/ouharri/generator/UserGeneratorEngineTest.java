@@ -0,0 +1,86 @@
+package com.ouharri.generator;
+
+import com.ouharri.cirestechnologies.generator.UserColumns;
+import com.ouharri.cirestechnologies.generator.UserGeneratorEngine;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserGeneratorEngineTest {
+
+    @Test
+    @DisplayName("Two engines fed with the same seed generate the same users")
+    public void testSameSeedSameUsers() {
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+        UserGeneratorEngine engine = new UserGeneratorEngine();
+        UserGeneratorEngine other = new UserGeneratorEngine();
+
+        for (int i = 0; i < 100; i++) {
+            UserGeneratedResponses expected = engine.generate(i, first);
+            UserGeneratedResponses actual = other.generate(i, second);
+
+            assertEquals(expected.getUsername(), actual.getUsername());
+            assertEquals(expected.getEmail(), actual.getEmail());
+            assertEquals(expected.getCity(), actual.getCity());
+            assertEquals(expected.getBirthDate(), actual.getBirthDate());
+        }
+    }
+
+    @Test
+    @DisplayName("Usernames and e-mails are unique within a file, including re-drawn ones")
+    public void testUniqueIdentifiers() {
+        UserGeneratorEngine engine = new UserGeneratorEngine();
+        SplittableRandom random = new SplittableRandom(1);
+        UserColumns columns = new UserColumns(20000);
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+
+        for (int i = 0; i < columns.capacity(); i++) {
+            engine.generate(i, random, columns, i);
+            assertTrue(usernames.add(columns.username(i)));
+            assertTrue(emails.add(columns.email(i)));
+
+            engine.redrawIdentifiers(columns, i, i, random);
+            assertTrue(usernames.add(columns.username(i)));
+            assertTrue(emails.add(columns.email(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Users generated into columns materialize to the same users")
+    public void testColumnsMaterializeSameUsers() {
+        UserGeneratorEngine engine = new UserGeneratorEngine();
+        SplittableRandom first = new SplittableRandom(3);
+        SplittableRandom second = new SplittableRandom(3);
+        UserColumns columns = new UserColumns(100);
+
+        for (int i = 0; i < columns.capacity(); i++) {
+            UserGeneratedResponses expected = engine.generate(i, first);
+            engine.generate(i, second, columns, i);
+            UserGeneratedResponses actual = engine.materialize(columns, i);
+
+            assertEquals(expected.getUsername(), actual.getUsername());
+            assertEquals(expected.getMobile(), actual.getMobile());
+            assertEquals(expected.getCompany(), actual.getCompany());
+            assertEquals(expected.getRole(), actual.getRole());
+        }
+    }
+
+    @Test
+    @DisplayName("Generated mobiles match the '0XXXXXXXXX' format")
+    public void testMobileFormat() {
+        UserGeneratorEngine engine = new UserGeneratorEngine();
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 100; i++)
+            assertTrue(engine.generate(i, random).getMobile().matches("0\\d{9}"));
+    }
+}
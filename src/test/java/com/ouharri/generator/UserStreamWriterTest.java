@@ -0,0 +1,94 @@
+package com.ouharri.generator;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.generator.UserStreamReader;
+import com.ouharri.cirestechnologies.generator.UserStreamWriter;
+import com.ouharri.cirestechnologies.model.dto.responses.UserGeneratedResponses;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.model.enums.Role;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class UserStreamWriterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static UserGeneratedResponses user(String username) {
+        return UserGeneratedResponses.builder()
+                .firstname("John")
+                .username(username)
+                .email(username + "@mail.com")
+                .role(Role.ADMIN)
+                .build();
+    }
+
+    @Test
+    @DisplayName("JSON format writes a single array readable as a list")
+    public void testJsonArray() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserStreamWriter writer = UserStreamWriter.open(GenerationFormat.JSON, out, mapper)) {
+            writer.write(user("first"));
+            writer.write(user("second"));
+        }
+
+        List<UserGeneratedResponses> users = mapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+
+        assertEquals(2, users.size());
+        assertEquals("second", users.get(1).getUsername());
+    }
+
+    @Test
+    @DisplayName("NDJSON format writes one object per line")
+    public void testNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserStreamWriter writer = UserStreamWriter.open(GenerationFormat.NDJSON, out, mapper)) {
+            writer.write(user("first"));
+            writer.write(user("second"));
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals("first", mapper.readValue(lines[0], UserGeneratedResponses.class).getUsername());
+    }
+
+    @Test
+    @DisplayName("CSV and binary files read back to the users written, quotes and dates included")
+    public void testCsvAndBinaryRoundTrip() throws Exception {
+        UserGeneratedResponses written = user("third");
+        written.setCompany("Smith, \"Jones\" & Co");
+        written.setCity("Paris");
+        written.setBirthDate(new Date(-86_400_000L));
+
+        for (GenerationFormat format : List.of(GenerationFormat.CSV, GenerationFormat.BINARY)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (UserStreamWriter writer = UserStreamWriter.open(format, out, mapper)) {
+                writer.write(user("first"));
+                writer.write(written);
+            }
+
+            try (UserStreamReader reader = UserStreamReader.open(format, new ByteArrayInputStream(out.toByteArray()), mapper)) {
+                assertEquals("first", reader.read().getUsername());
+                UserResponses read = reader.read();
+                assertEquals("third@mail.com", read.getEmail());
+                assertEquals(written.getCompany(), read.getCompany());
+                assertEquals(written.getBirthDate(), read.getBirthDate());
+                assertEquals(Role.ADMIN, read.getRole());
+                assertNull(read.getCountry());
+                assertNull(reader.read());
+            }
+        }
+    }
+}
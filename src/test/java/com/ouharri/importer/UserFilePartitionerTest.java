@@ -0,0 +1,86 @@
+package com.ouharri.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.importer.NdjsonUserItemReader;
+import com.ouharri.cirestechnologies.importer.UserFilePartitioner;
+import com.ouharri.cirestechnologies.model.dto.responses.UserResponses;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UserFilePartitionerTest {
+
+    private static final int COUNT = 50;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Path file;
+    private List<String> emails;
+
+    @BeforeEach
+    public void setUp(@TempDir Path directory) throws IOException {
+        emails = IntStream.range(0, COUNT).mapToObj(i -> "user" + i + "@mail.com").toList();
+        file = Files.write(directory.resolve("users.ndjson"), emails.stream()
+                .map(email -> "{\"firstname\":\"" + "x".repeat(email.length()) + "\",\"email\":\"" + email + "\"}")
+                .toList());
+    }
+
+    private NdjsonUserItemReader open(ExecutionContext context) {
+        NdjsonUserItemReader reader = new NdjsonUserItemReader(mapper, file,
+                context.getLong(UserFilePartitioner.START), context.getLong(UserFilePartitioner.END));
+        reader.open(context);
+        return reader;
+    }
+
+    private static List<String> readAll(NdjsonUserItemReader reader) throws IOException {
+        List<String> read = new ArrayList<>();
+        for (UserResponses user = reader.read(); user != null; user = reader.read())
+            read.add(user.getEmail());
+        return read;
+    }
+
+    @Test
+    @DisplayName("Partitions cover every line of the file exactly once")
+    public void testPartitionsCoverFile() throws IOException {
+        Map<String, ExecutionContext> partitions = new UserFilePartitioner(file).partition(7);
+
+        List<String> read = new ArrayList<>();
+        for (ExecutionContext context : partitions.values()) {
+            NdjsonUserItemReader reader = open(context);
+            read.addAll(readAll(reader));
+            reader.close();
+        }
+
+        assertEquals(7, partitions.size());
+        assertEquals(emails, read);
+    }
+
+    @Test
+    @DisplayName("A reopened partition resumes after the last saved offset")
+    public void testRestartFromOffset() throws IOException {
+        ExecutionContext context = new UserFilePartitioner(file).partition(2).get("partition1");
+
+        NdjsonUserItemReader reader = open(context);
+        List<String> read = new ArrayList<>(List.of(reader.read().getEmail(), reader.read().getEmail()));
+        reader.update(context);
+        reader.read();
+        reader.close();
+
+        reader = open(context);
+        read.addAll(readAll(reader));
+        reader.close();
+
+        assertEquals(emails.subList(COUNT - read.size(), COUNT), read);
+    }
+}
@@ -0,0 +1,189 @@
+package com.ouharri.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ouharri.cirestechnologies.generator.UserGeneratorEngine;
+import com.ouharri.cirestechnologies.generator.UserStreamReader;
+import com.ouharri.cirestechnologies.generator.UserStreamWriter;
+import com.ouharri.cirestechnologies.importer.PasswordHasher;
+import com.ouharri.cirestechnologies.importer.UserBulkInserter;
+import com.ouharri.cirestechnologies.importer.UserImportPipeline;
+import com.ouharri.cirestechnologies.mapper.UserMapper;
+import com.ouharri.cirestechnologies.model.dto.responses.ImportRecordResponse;
+import com.ouharri.cirestechnologies.model.dto.responses.UploadSummaryResponseDTO;
+import com.ouharri.cirestechnologies.model.entities.User;
+import com.ouharri.cirestechnologies.model.enums.GenerationFormat;
+import com.ouharri.cirestechnologies.model.enums.ImportStatus;
+import com.ouharri.cirestechnologies.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class UserImportPipelineTest {
+
+    private UserRepository repository;
+    private UserBulkInserter inserter;
+    private UserImportPipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(UserRepository.class);
+        inserter = mock(UserBulkInserter.class);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hashed");
+        when(repository.findIdentifiers(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(inserter.insert(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        pipeline = new UserImportPipeline(
+                repository,
+                Mappers.getMapper(UserMapper.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new PasswordHasher(passwordEncoder, Runnable::run, new SimpleMeterRegistry(), 0),
+                inserter,
+                mock(PlatformTransactionManager.class),
+                Runnable::run,
+                2,
+                2,
+                1,
+                1
+        );
+    }
+
+    private UploadSummaryResponseDTO importUsers(String file, Map<Long, ImportRecordResponse> outcomes) throws IOException {
+        try (UserStreamReader reader = UserStreamReader.open(
+                GenerationFormat.NDJSON,
+                new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)),
+                new ObjectMapper()
+        )) {
+            return pipeline.importUsers(reader, outcome -> outcomes.put(outcome.getRecord(), outcome));
+        }
+    }
+
+    @Test
+    @DisplayName("Users are imported in batches, each record getting its outcome")
+    public void testImportInBatches() throws Exception {
+        when(repository.findIdentifiers(anyCollection(), anyCollection())).thenReturn(List.of(identifiers("taken@mail.com", "taken")));
+
+        Map<Long, ImportRecordResponse> outcomes = new ConcurrentHashMap<>();
+        UploadSummaryResponseDTO summary = importUsers("""
+                {"firstname":"A","username":"a","email":"a@mail.com","password":"password"}
+                {"firstname":"B","username":"b","email":"taken@mail.com","password":"password"}
+                {"firstname":"C","username":"c","email":"c@mail.com","password":"password"}
+                {"firstname":"D","username":"d","email":"c@mail.com","password":"password"}
+                {"firstname":"E","username":"e","email":"e@mail.com","password":""}
+                """, outcomes);
+
+        assertEquals(5, summary.getTotalRecords());
+        assertEquals(2, summary.getSuccessfullyImported());
+        assertEquals(3, summary.getFailedToImport());
+        assertEquals(ImportStatus.IMPORTED, outcomes.get(1L).getStatus());
+        assertEquals(ImportStatus.DUPLICATE_EMAIL, outcomes.get(2L).getStatus());
+        assertEquals(ImportStatus.IMPORTED, outcomes.get(3L).getStatus());
+        assertEquals(ImportStatus.DUPLICATE_EMAIL, outcomes.get(4L).getStatus());
+        assertEquals(ImportStatus.VALIDATION_ERROR, outcomes.get(5L).getStatus());
+        verify(inserter, times(2)).insert(anyList());
+    }
+
+    @Test
+    @DisplayName("A rejected batch is split down to the offending record")
+    public void testRejectedBatchIsSplit() throws Exception {
+        when(inserter.insert(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.stream().anyMatch(user -> user.getEmail().equals("race@mail.com")))
+                throw new DuplicateKeyException("duplicate key value violates unique constraint");
+            return users.size();
+        });
+        when(repository.findIdentifiers(Set.of("race@mail.com"), Set.of("b")))
+                .thenReturn(List.of(identifiers("race@mail.com", "other")));
+
+        Map<Long, ImportRecordResponse> outcomes = new ConcurrentHashMap<>();
+        UploadSummaryResponseDTO summary = importUsers("""
+                {"firstname":"A","username":"a","email":"a@mail.com","password":"password"}
+                {"firstname":"B","username":"b","email":"race@mail.com","password":"password"}
+                """, outcomes);
+
+        assertEquals(1, summary.getSuccessfullyImported());
+        assertEquals(ImportStatus.IMPORTED, outcomes.get(1L).getStatus());
+        assertEquals(ImportStatus.DUPLICATE_EMAIL, outcomes.get(2L).getStatus());
+    }
+
+    @Test
+    @DisplayName("A chunk failing transiently is retried, then skipped")
+    public void testTransientFailureIsRetried() throws Exception {
+        when(inserter.insert(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("deadlock detected"))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size())
+                .thenThrow(new TransientDataAccessResourceException("deadlock detected"));
+
+        Map<Long, ImportRecordResponse> outcomes = new ConcurrentHashMap<>();
+        UploadSummaryResponseDTO summary = importUsers("""
+                {"firstname":"A","username":"a","email":"a@mail.com","password":"password"}
+                {"firstname":"B","username":"b","email":"b@mail.com","password":"password"}
+                {"firstname":"C","username":"c","email":"c@mail.com","password":"password"}
+                """, outcomes);
+
+        assertEquals(2, summary.getSuccessfullyImported());
+        assertEquals(ImportStatus.IMPORTED, outcomes.get(1L).getStatus());
+        assertEquals(ImportStatus.IMPORTED, outcomes.get(2L).getStatus());
+        assertEquals(ImportStatus.DATABASE_ERROR, outcomes.get(3L).getStatus());
+        verify(inserter, times(4)).insert(anyList());
+    }
+
+    @Test
+    @DisplayName("Users of a generated file are all imported, whatever the length of their password")
+    public void testImportGeneratedFile() throws Exception {
+        UserGeneratorEngine engine = new UserGeneratorEngine();
+        SplittableRandom random = new SplittableRandom(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserStreamWriter writer = UserStreamWriter.open(GenerationFormat.NDJSON, out, new ObjectMapper())) {
+            for (int i = 0; i < 200; i++)
+                writer.write(engine.generate(i, random));
+        }
+
+        Map<Long, ImportRecordResponse> outcomes = new ConcurrentHashMap<>();
+        UploadSummaryResponseDTO summary = importUsers(out.toString(StandardCharsets.UTF_8), outcomes);
+
+        assertEquals(200, summary.getTotalRecords());
+        assertEquals(200, summary.getSuccessfullyImported(), () -> outcomes.values().stream()
+                .filter(outcome -> outcome.getStatus() != ImportStatus.IMPORTED)
+                .map(ImportRecordResponse::getReason)
+                .findFirst()
+                .orElse(""));
+    }
+
+    private static UserRepository.UserIdentifiers identifiers(String email, String username) {
+        return new UserRepository.UserIdentifiers() {
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+}
@@ -7,7 +7,10 @@ import com.ouharri.cirestechnologies.model.entities.User;
 import com.ouharri.cirestechnologies.model.enums.Gender;
 import com.ouharri.cirestechnologies.model.enums.Role;
 import com.ouharri.cirestechnologies.repositories.TokenRepository;
+import com.ouharri.cirestechnologies.security.IssuedToken;
+import com.ouharri.cirestechnologies.security.TokenBulkRevoker;
 import com.ouharri.cirestechnologies.services.impl.UserServiceImpl;
+import com.ouharri.cirestechnologies.services.spec.JwtService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,12 +24,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +40,10 @@ public class UserServiceImplTest {
 
     @Mock
     private TokenRepository tokenRepository;
+    @Mock
+    private TokenBulkRevoker tokenRevoker;
+    @Mock
+    private JwtService jwtService;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -74,11 +84,12 @@ public class UserServiceImplTest {
     public void testSaveUserToken() {
         User user = new User();
         user.setEmail("test@example.com");
-        String jwtToken = "jwt_token";
+        IssuedToken jwtToken = new IssuedToken("jwt_token", UUID.randomUUID().toString(), Instant.now().plusSeconds(60));
 
         userService.saveUserToken(user, jwtToken);
 
-        verify(tokenRepository).save(any(Token.class));
+        verify(tokenRepository).save(argThat(token -> jwtToken.jti().equals(token.getJti()) && jwtToken.expiresAt().equals(token.getExpiresAt())));
+        verify(jwtService, never()).verify(anyString());
     }
 
     @Test
@@ -87,11 +98,15 @@ public class UserServiceImplTest {
         User user = new User();
         user.setId(UUID.randomUUID());
 
-        when(tokenRepository.findAllValidTokenByUser(user.getId())).thenReturn(List.of(new Token(), new Token(), new Token()));
+        List<Token> tokens = List.of(new Token(), new Token(), new Token());
+        when(tokenRevoker.revokeAllByUser(user.getId())).thenReturn(tokens);
+        when(jwtService.revoke(tokens)).thenReturn(true);
 
-        userService.revokeAllUserTokens(user);
+        assertTrue(userService.revokeAllUserTokens(user));
 
-        verify(tokenRepository, times(1)).saveAll(anyList());
+        verify(tokenRevoker, times(1)).revokeAllByUser(user.getId());
+        verify(tokenRepository, never()).saveAll(anyList());
+        verify(jwtService, times(1)).revoke(tokens);
     }
 }
 